@@ -28,28 +28,45 @@
  */
 package org.burningwave.core.extension.concurrent;
 
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.burningwave.core.Component;
 
+//A thread waiting for a value that satisfies the predicate, which is parked until it is unlocked, or a listener
+//of the value, which is completed when it is unlocked
 public class Mutex<K, V> implements Component {
 	private K key;
 	private Predicate<V> predicate;
+	private Thread waiter;
+	private CompletableFuture<V> listener;
+	private volatile boolean unlocked;
 
 
-	private Mutex(K key, Predicate<V> predicate) {
+	private Mutex(K key, Predicate<V> predicate, Thread waiter, CompletableFuture<V> listener) {
 		this.key = key;
 		this.predicate = predicate;
+		this.waiter = waiter;
+		this.listener = listener;
 	}
 
 	static <K, V> Mutex<K, V> create(K key, Predicate<V> predicate) {
-		return new Mutex<>(key, predicate);
+		return new Mutex<>(key, predicate, Thread.currentThread(), null);
+	}
+
+	static <K, V> Mutex<K, V> create(K key, Predicate<V> predicate, CompletableFuture<V> listener) {
+		return new Mutex<>(key, predicate, null, listener);
 	}
 
 
@@ -61,102 +78,229 @@ public class Mutex<K, V> implements Component {
 		return predicate;
 	}
 
+	public boolean isUnlocked() {
+		return unlocked;
+	}
+
+	boolean isListener() {
+		return listener != null;
+	}
+
+	void unlock(V value) {
+		unlocked = true;
+		Thread waiter = this.waiter;
+		if (waiter != null) {
+			LockSupport.unpark(waiter);
+		}
+		CompletableFuture<V> listener = this.listener;
+		if (listener != null) {
+			listener.complete(value);
+		}
+	}
+
+	void expire(int timeout) {
+		unlocked = true;
+		CompletableFuture<V> listener = this.listener;
+		if (listener != null) {
+			listener.completeExceptionally(new TimeoutException("Timeout of " + timeout + " milliseconds expired for key " + key));
+		}
+	}
+
 	@Override
 	public void close() {
 		key = null;
 		predicate = null;
+		waiter = null;
+		listener = null;
 	}
 
-
 	public static abstract class Manager implements Component {
 
+		//The mutexes are indexed by operation and key: a change of a key that nobody is waiting for costs a
+		//read of a counter
 		public static class ForMap<O, K, V> extends Manager  {
+			//Shared by all the managers: the pending timeouts of the listeners cost no threads
+			private static final ScheduledThreadPoolExecutor timer;
+
+			static {
+				timer = new ScheduledThreadPoolExecutor(1, task -> {
+					Thread thread = new Thread(task, "Burningwave Graph - Listeners timer");
+					thread.setDaemon(true);
+					return thread;
+				});
+				timer.setRemoveOnCancelPolicy(true);
+			}
 
-			private Map<O, Set<Mutex<K, V>>> mutexes;
+			private Map<O, Map<K, Set<Mutex<K, V>>>> mutexes;
 			private Function<K, V> valueRetriever;
+			private final AtomicInteger mutexesCount;
 
 			private ForMap(Function<K, V> valueRetriever) {
-				mutexes = new LinkedHashMap<>();
+				mutexes = new ConcurrentHashMap<>();
 				this.valueRetriever = valueRetriever;
+				this.mutexesCount = new AtomicInteger();
 			}
 
 			public static <O, K, V> ForMap<O, K, V> create(Function<K, V> valueRetriever) {
 				return new ForMap<>(valueRetriever);
 			}
 
+			//Returns the value when it satisfies the predicate or, as soon as the calling thread has been unlocked
+			//or the timeout has expired, the current value
 			public V waitFor(O operation, K key, Predicate<V> predicate, int... timeout) throws InterruptedException {
 				V toRet = valueRetriever.apply(key);
 				if (predicate.test(toRet)) {
 					return toRet;
 				}
-
+				long deadline = timeout != null && timeout.length > 0 && timeout[0] > 0 ?
+					System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout[0]) : 0;
 				Mutex<K, V> mutex = addMutexFor(operation, key, predicate);
-				synchronized (mutex) {
-					toRet = valueRetriever.apply(key);
-					if (predicate.test(toRet)) {
-						return toRet;
-					}
-					if (timeout != null && timeout.length > 0) {
-						mutex.wait(timeout[0]);
-					} else {
-						mutex.wait();
+				try {
+					while (true) {
+						toRet = valueRetriever.apply(key);
+						if (mutex.isUnlocked() || predicate.test(toRet)) {
+							return toRet;
+						}
+						if (Thread.interrupted()) {
+							throw new InterruptedException();
+						}
+						if (deadline == 0) {
+							LockSupport.park(mutex);
+						} else {
+							long remainingNanos = deadline - System.nanoTime();
+							if (remainingNanos <= 0) {
+								return toRet;
+							}
+							LockSupport.parkNanos(mutex, remainingNanos);
+						}
 					}
-					return valueRetriever.apply(key);
+				} finally {
+					removeMutexFor(operation, mutex, null);
 				}
 			}
 
+			//The listener is completed, by the thread that changes the value, with the value that satisfies the
+			//predicate, as soon as the manager is cleared with the current value or, when the timeout expires,
+			//exceptionally with a TimeoutException
+			public CompletableFuture<V> listenFor(O operation, K key, Predicate<V> predicate, int... timeout) {
+				V value = valueRetriever.apply(key);
+				if (predicate.test(value)) {
+					return CompletableFuture.completedFuture(value);
+				}
+				CompletableFuture<V> listener = new CompletableFuture<>();
+				Mutex<K, V> mutex = addMutex(operation, Mutex.create(key, predicate, listener));
+				//The value could have been changed before the registration of the listener
+				value = valueRetriever.apply(key);
+				if (predicate.test(value)) {
+					removeMutexFor(operation, mutex, value);
+				} else if (timeout != null && timeout.length > 0 && timeout[0] > 0) {
+					int timeoutInMillis = timeout[0];
+					ScheduledFuture<?> timeoutTask = timer.schedule(() -> {
+						if (removeMutex(operation, mutex)) {
+							mutex.expire(timeoutInMillis);
+							mutex.close();
+						}
+					}, timeoutInMillis, TimeUnit.MILLISECONDS);
+					//The listener can be completed before the scheduling: the task is cancelled by the callback,
+					//which runs immediately in that case
+					listener.whenComplete((result, exception) -> timeoutTask.cancel(false));
+				}
+				return listener;
+			}
 
+			//The returned mutex is bound to the calling thread
 			public Mutex<K, V> addMutexFor(O operation, K key, Predicate<V> predicate) {
-				Set<Mutex<K, V>> mutexes = getMutexes(operation);
-				return mutexes.stream().filter(mutex ->
-					mutex.getKey().equals(key) && mutex.getPredicate() == predicate
-				).findFirst().orElseGet(() -> {
-					Mutex<K, V> mutex = Mutex.create(key, predicate);
-					mutexes.add(mutex);
-					return mutex;
-				});
+				return addMutex(operation, Mutex.create(key, predicate));
 			}
 
-			public Set<Mutex<K, V>> getMutexes(O operation) {
-				return Optional.ofNullable(mutexes.get(operation)).orElseGet(() -> {
-					Set<Mutex<K, V>> mutexes = ConcurrentHashMap.newKeySet();
-					this.mutexes.put(operation, mutexes);
-					return mutexes;
+			//The set of the key is created and changed atomically with its removal
+			private Mutex<K, V> addMutex(O operation, Mutex<K, V> mutex) {
+				mutexes.computeIfAbsent(operation, op -> new ConcurrentHashMap<>()).compute(mutex.getKey(), (key, mutexesForKey) -> {
+					if (mutexesForKey == null) {
+						mutexesForKey = ConcurrentHashMap.newKeySet();
+					}
+					mutexesForKey.add(mutex);
+					return mutexesForKey;
 				});
+				mutexesCount.incrementAndGet();
+				return mutex;
 			}
 
+			private V retrieveValue(K key) {
+				Function<K, V> valueRetriever = this.valueRetriever;
+				return valueRetriever != null && key != null ? valueRetriever.apply(key) : null;
+			}
+
+			public Set<Mutex<K, V>> getMutexes(O operation, K key) {
+				Map<K, Set<Mutex<K, V>>> mutexesForOperation = mutexes.get(operation);
+				Set<Mutex<K, V>> mutexesForKey = mutexesForOperation != null && key != null ?
+					mutexesForOperation.get(key) : null;
+				return mutexesForKey != null ? mutexesForKey : Collections.emptySet();
+			}
+
+			//Returns true if someone is waiting for an operation: the notifiers can skip the unlocking (and the
+			//boxing of the value) otherwise
+			public boolean hasMutexes() {
+				return mutexesCount.get() > 0;
+			}
 
 			public void unlockMutexes(O operation, K key, V value) {
-				Set<Mutex<K, V>> mutexesForPut = getMutexes(operation);
-				if (!mutexesForPut.isEmpty()) {
-					for (Mutex<K, V> mutex : mutexesForPut) {
-						if (mutex.getKey().equals(key) && mutex.getPredicate().test(value)) {
-							synchronized (mutex) {
-								mutex.notifyAll();
-							}
-							break;
+				if (!hasMutexes()) {
+					return;
+				}
+				Map<K, Set<Mutex<K, V>>> mutexesForOperation = mutexes.get(operation);
+				Set<Mutex<K, V>> mutexesForKey = mutexesForOperation != null && key != null ?
+					mutexesForOperation.get(key) : null;
+				if (mutexesForKey == null) {
+					return;
+				}
+				for (Mutex<K, V> mutex : mutexesForKey) {
+					Predicate<V> predicate = mutex.getPredicate();
+					if (predicate != null && predicate.test(value)) {
+						if (mutex.isListener()) {
+							removeMutexFor(operation, mutex, value);
+						} else {
+							mutex.unlock(value);
 						}
 					}
 				}
 			}
 
-			void removeMutexFor(O operation, Mutex<K, V> mutex) throws Exception {
-				removeMutex(getMutexes(operation), mutex);
+			//Only the first removal unlocks the mutex
+			void removeMutexFor(O operation, Mutex<K, V> mutex, V value) {
+				if (removeMutex(operation, mutex)) {
+					mutex.unlock(value);
+					mutex.close();
+				}
 			}
 
-			void removeMutex(Set<Mutex<K, V>> mutexSet, Mutex<K, V> mutex) {
-				synchronized (mutex) {
-					mutex.notifyAll();
-					mutexSet.remove(mutex);
-					mutex.close();
+			//The set of the key is removed, atomically with the removal of its last mutex, so that the keys that
+			//nobody is waiting for don't hold memory
+			private boolean removeMutex(O operation, Mutex<K, V> mutex) {
+				Map<O, Map<K, Set<Mutex<K, V>>>> mutexes = this.mutexes;
+				Map<K, Set<Mutex<K, V>>> mutexesForOperation = mutexes != null ? mutexes.get(operation) : null;
+				K key = mutex.getKey();
+				if (mutexesForOperation == null || key == null) {
+					return false;
 				}
+				boolean[] removed = {false};
+				mutexesForOperation.computeIfPresent(key, (k, mutexesForKey) -> {
+					removed[0] = mutexesForKey.remove(mutex);
+					return mutexesForKey.isEmpty() ? null : mutexesForKey;
+				});
+				if (removed[0]) {
+					mutexesCount.decrementAndGet();
+				}
+				return removed[0];
 			}
 
+			//The waiting threads and the listeners are unlocked
 			public void clearMutexes() {
-				for (O key : mutexes.keySet()) {
-					Set<Mutex<K, V>> mutexSet = mutexes.get(key);
-					for(Mutex<K, V> mutex : mutexSet) {
-						removeMutex(mutexSet, mutex);
+				for (Map.Entry<O, Map<K, Set<Mutex<K, V>>>> mutexesForOperation : mutexes.entrySet()) {
+					for (Set<Mutex<K, V>> mutexSet : mutexesForOperation.getValue().values()) {
+						for (Mutex<K, V> mutex : mutexSet) {
+							removeMutexFor(mutexesForOperation.getKey(), mutex, mutex.isListener() ? retrieveValue(mutex.getKey()) : null);
+						}
 					}
 				}
 			}
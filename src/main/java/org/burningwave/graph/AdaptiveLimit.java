@@ -0,0 +1,117 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.util.concurrent.TimeUnit;
+
+//Limit of the concurrent tasks of an asynchronous group with "threadsNumber" set to "adaptive": the limit
+//grows by one every limit tasks while their latency stays close to the minimum observed latency and it is
+//reduced by a factor when the latency exceeds the tolerance (additive increase, multiplicative decrease)
+public class AdaptiveLimit {
+	static final int MAX_VALUE = 1024;
+	static final double LATENCY_TOLERANCE = 2;
+	static final double BACKOFF_RATIO = 0.9;
+	static final long THROUGHPUT_WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private double limit;
+	private long minLatency;
+	private long averageLatency;
+	private long completedTasksCount;
+	private int tasksCountSinceDecrease;
+	private double throughput;
+	private long throughputWindowStartTime;
+	private long throughputWindowTasksCount;
+
+	private AdaptiveLimit(int initialLimit) {
+		this.limit = Math.max(1, Math.min(MAX_VALUE, initialLimit));
+		this.throughputWindowStartTime = System.nanoTime();
+	}
+
+	static AdaptiveLimit create(int initialLimit) {
+		return new AdaptiveLimit(initialLimit);
+	}
+
+	//Records the latency of a completed task and returns the new limit
+	synchronized int record(long latency, int runningTasksCount) {
+		long now = System.nanoTime();
+		latency = Math.max(1, latency);
+		++completedTasksCount;
+		averageLatency = averageLatency == 0 ? latency : averageLatency + (latency - averageLatency) / 8;
+		//The minimum slowly follows the latency so that a permanent slowdown becomes the new baseline
+		minLatency = minLatency == 0 || latency < minLatency ? latency : minLatency + (latency - minLatency) / 256;
+		++tasksCountSinceDecrease;
+		if (latency > minLatency * LATENCY_TOLERANCE) {
+			//The tasks started before the last decrease are not counted again
+			if (tasksCountSinceDecrease >= limit) {
+				limit = Math.max(1, limit * BACKOFF_RATIO);
+				tasksCountSinceDecrease = 0;
+			}
+		} else if (runningTasksCount >= limit / 2) {
+			//The limit grows only if the tasks are using it
+			limit = Math.min(MAX_VALUE, limit + 1 / limit);
+		}
+		++throughputWindowTasksCount;
+		long throughputWindowDuration = now - throughputWindowStartTime;
+		if (throughputWindowDuration >= THROUGHPUT_WINDOW) {
+			throughput = throughputWindowTasksCount * (double)TimeUnit.SECONDS.toNanos(1) / throughputWindowDuration;
+			throughputWindowStartTime = now;
+			throughputWindowTasksCount = 0;
+		}
+		return getLimit();
+	}
+
+	public synchronized int getLimit() {
+		return (int)limit;
+	}
+
+	//Minimum latency observed, in nanoseconds
+	public synchronized long getMinLatency() {
+		return minLatency;
+	}
+
+	//Exponentially weighted moving average of the latency, in nanoseconds
+	public synchronized long getAverageLatency() {
+		return averageLatency;
+	}
+
+	//Completed tasks per second, measured on the last window of 100 milliseconds
+	public synchronized double getThroughput() {
+		return throughput;
+	}
+
+	public synchronized long getCompletedTasksCount() {
+		return completedTasksCount;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "AdaptiveLimit [limit=" + getLimit() + ", minLatency=" + minLatency + ", averageLatency=" + averageLatency +
+			", throughput=" + throughput + ", completedTasksCount=" + completedTasksCount + "]";
+	}
+}
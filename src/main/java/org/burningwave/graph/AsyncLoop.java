@@ -0,0 +1,141 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+//Iterates the items without blocking any thread: each lane requests the next item only when the completion
+//stage of the previous one is complete and the stages already completed are processed in a loop instead of
+//in nested callbacks, so the stack doesn't grow with the number of items. The lanes share the iterator
+class AsyncLoop<T> {
+	private final Iterator<? extends T> iterator;
+	private final ItemProcessor<? super T> itemProcessor;
+	private final BooleanSupplier stopCondition;
+	private final Function<Throwable, Void> exceptionHandler;
+	private final AtomicInteger pendingLanesCounter;
+	private final CompletableFuture<Void> completion;
+	private int idx;
+
+	private AsyncLoop(
+		Iterator<? extends T> iterator,
+		int lanesCount,
+		ItemProcessor<? super T> itemProcessor,
+		BooleanSupplier stopCondition,
+		Function<Throwable, Void> exceptionHandler
+	) {
+		this.iterator = iterator;
+		this.itemProcessor = itemProcessor;
+		this.stopCondition = stopCondition;
+		this.exceptionHandler = exceptionHandler;
+		this.pendingLanesCounter = new AtomicInteger(lanesCount);
+		this.completion = new CompletableFuture<>();
+	}
+
+	//If the exception handler is null the first exception completes exceptionally the returned stage
+	//and stops the iteration, otherwise the exceptions are passed to the handler and the iteration goes on
+	static <T> CompletableFuture<Void> iterate(
+		Iterator<? extends T> iterator,
+		int lanesCount,
+		ItemProcessor<? super T> itemProcessor,
+		BooleanSupplier stopCondition,
+		Function<Throwable, Void> exceptionHandler
+	) {
+		AsyncLoop<T> loop = new AsyncLoop<>(iterator, Math.max(1, lanesCount), itemProcessor, stopCondition, exceptionHandler);
+		for (int lane = 0; lane < Math.max(1, lanesCount); lane++) {
+			loop.advance();
+		}
+		return loop.completion;
+	}
+
+	private void advance() {
+		while (true) {
+			T item;
+			int itemIndex;
+			synchronized (iterator) {
+				if (completion.isDone() || stopCondition.getAsBoolean() || !iterator.hasNext()) {
+					if (pendingLanesCounter.decrementAndGet() == 0) {
+						completion.complete(null);
+					}
+					return;
+				}
+				item = iterator.next();
+				itemIndex = idx++;
+			}
+			CompletableFuture<?> itemCompletion;
+			try {
+				itemCompletion = itemProcessor.process(item, itemIndex);
+			} catch (Throwable exc) {
+				itemCompletion = new CompletableFuture<>();
+				itemCompletion.completeExceptionally(exc);
+			}
+			if (!itemCompletion.isDone()) {
+				itemCompletion.whenComplete((result, exc) -> {
+					if (exc == null || handle(exc)) {
+						advance();
+					}
+				});
+				return;
+			}
+			if (itemCompletion.isCompletedExceptionally()) {
+				Throwable exception = null;
+				try {
+					itemCompletion.join();
+				} catch (Throwable exc) {
+					exception = exc;
+				}
+				if (!handle(exception)) {
+					return;
+				}
+			}
+		}
+	}
+
+	//Returns false if the iteration must be stopped
+	private boolean handle(Throwable exc) {
+		CompletionException exception = exc instanceof CompletionException ? (CompletionException)exc : new CompletionException(exc);
+		if (exceptionHandler == null) {
+			completion.completeExceptionally(exception.getCause() != null ? exception.getCause() : exception);
+			return false;
+		}
+		exceptionHandler.apply(exception);
+		return true;
+	}
+
+	@FunctionalInterface
+	static interface ItemProcessor<T> {
+
+		CompletableFuture<?> process(T item, int idx);
+
+	}
+}
@@ -0,0 +1,423 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+//Shared by the tasks of an execution of an asynchronous group or loop: once it is cancelled the tasks
+//that have not yet started are skipped and, if requested, the threads of the running tasks are interrupted.
+//The token is also cancelled when the deadline of the context on which the tasks are executed is reached:
+//in this case the threads of the running tasks are always interrupted
+class CancellationToken {
+	private static final long HELPING_WAITING_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(1);
+	//Shared by all the tokens: the pending deadlines cost no threads
+	private static final ScheduledThreadPoolExecutor timer;
+	//The token of the task that the current thread is running
+	private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+	static {
+		timer = new ScheduledThreadPoolExecutor(1, task -> {
+			Thread thread = new Thread(task, "Burningwave Graph - Deadlines timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.setRemoveOnCancelPolicy(true);
+	}
+
+	private final boolean interruptRunningTasks;
+	private final Set<Thread> runningThreads;
+	private final Context.Abst context;
+	private Executor executor;
+	private Queue<Runnable> queuedTasks;
+	private volatile boolean cancelled;
+	private volatile boolean interrupted;
+
+	private CancellationToken(boolean interruptRunningTasks, Context.Abst context) {
+		this.interruptRunningTasks = interruptRunningTasks;
+		runningThreads = interruptRunningTasks || (context != null && context.deadlineSet) ? ConcurrentHashMap.newKeySet() : null;
+		this.context = context;
+	}
+
+	static CancellationToken create(boolean interruptRunningTasks) {
+		return new CancellationToken(interruptRunningTasks, null);
+	}
+
+	static CancellationToken create(boolean interruptRunningTasks, Context context) {
+		return new CancellationToken(interruptRunningTasks, (Context.Abst)context);
+	}
+
+	//The tasks submitted to the returned executor are queued in the token and the executor receives, for each of
+	//them, a task that runs the first one still queued: the threads of the executor that wait for the execution
+	//run the queued tasks in place of them, so that they never run the tasks of other executions
+	Executor bind(Executor executor) {
+		this.executor = executor;
+		this.queuedTasks = new ConcurrentLinkedQueue<>();
+		return task -> {
+			queuedTasks.offer(task);
+			try {
+				executor.execute(() -> GraphScheduler.run(executor, this::runQueuedTask));
+			} catch (RejectedExecutionException exc) {
+				queuedTasks.remove(task);
+				throw exc;
+			}
+		};
+	}
+
+	boolean isCancelled() {
+		if (!cancelled && context != null && context.isExpired()) {
+			expire();
+		}
+		return cancelled;
+	}
+
+	//Schedules the task at the deadline of the context: returns null if the context has no deadline
+	static ScheduledFuture<?> schedule(Runnable task, Context.Abst context) {
+		long remainingNanos = context.getRemainingNanos();
+		return remainingNanos != Long.MAX_VALUE ? timer.schedule(task, remainingNanos, TimeUnit.NANOSECONDS) : null;
+	}
+
+	//Runs the task on the current thread, which is interrupted if the deadline of the context is reached
+	//before the task ends
+	<T> T call(Supplier<T> task) {
+		CancellationToken previousToken = register();
+		ScheduledFuture<?> expiration = schedule(this::expire, context);
+		try {
+			return task.get();
+		} finally {
+			if (expiration != null) {
+				expiration.cancel(false);
+			}
+			unregister(previousToken);
+		}
+	}
+
+	//Waits for the completion of the tasks until the deadline of the context is reached: in this case the
+	//running tasks are interrupted and the waiting ends without waiting for them. They are registered as late
+	//tasks of the context, which is not handed to another execution until they are completed
+	void await(CompletableFuture<?> completion) {
+		if (isHelpable()) {
+			awaitHelping(completion);
+			return;
+		}
+		long remainingNanos = getRemainingNanos();
+		if (remainingNanos == Long.MAX_VALUE) {
+			completion.join();
+			return;
+		}
+		try {
+			completion.get(remainingNanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException exc) {
+			expire(completion);
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			if (context.isExpired()) {
+				expire(completion);
+			} else {
+				cancelAndAwait(completion, false);
+			}
+		} catch (ExecutionException exc) {
+			throw new CompletionException(exc.getCause());
+		}
+	}
+
+	//While the tasks are not completed the waiting thread runs the tasks queued in the token by the bound
+	//executor: the nested groups that share a bounded executor with their parent can't wait forever for a
+	//thread that is blocked waiting for them. A task run by the waiting thread is interrupted at the deadline
+	private void awaitHelping(CompletableFuture<?> completion) {
+		ScheduledFuture<?> expiration = context != null ? schedule(this::expire, context) : null;
+		try {
+			while (!completion.isDone()) {
+				long remainingNanos = getRemainingNanos();
+				if (remainingNanos <= 0) {
+					expire(completion);
+					return;
+				}
+				if (help()) {
+					continue;
+				}
+				try {
+					completion.get(Math.min(remainingNanos, HELPING_WAITING_TIMEOUT), TimeUnit.NANOSECONDS);
+				} catch (TimeoutException exc) {
+
+				} catch (InterruptedException exc) {
+					Thread.currentThread().interrupt();
+					if (context != null && context.isExpired()) {
+						expire(completion);
+					} else {
+						cancelAndAwait(completion, true);
+					}
+					return;
+				} catch (ExecutionException exc) {
+					throw new CompletionException(exc.getCause());
+				}
+			}
+			completion.join();
+		} finally {
+			if (expiration != null) {
+				expiration.cancel(false);
+			}
+		}
+	}
+
+	private long getRemainingNanos() {
+		return context != null ? context.getRemainingNanos() : Long.MAX_VALUE;
+	}
+
+	private void expire(CompletableFuture<?> completion) {
+		expire();
+		if (!completion.isDone()) {
+			context.addLateTasks(completion);
+		}
+	}
+
+	//The tasks that have not yet started are skipped and, if requested, the running ones are interrupted: the
+	//exceptions of the tasks are ignored and the waiting thread, that has been interrupted, waits for the
+	//running tasks. The interruption of the waiting thread is restored once the tasks are completed
+	private void cancelAndAwait(CompletableFuture<?> completion, boolean helpable) {
+		cancel();
+		boolean interrupted = Thread.interrupted();
+		while (!completion.isDone()) {
+			if (helpable && help()) {
+				continue;
+			}
+			try {
+				if (helpable) {
+					completion.get(HELPING_WAITING_TIMEOUT, TimeUnit.NANOSECONDS);
+				} else {
+					completion.get();
+				}
+			} catch (TimeoutException | ExecutionException exc) {
+
+			} catch (InterruptedException exc) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	//Acquires the permits running, while they are not available, the tasks queued in the token: returns false
+	//if the deadline of the context is reached before
+	boolean acquire(Semaphore semaphore, int permits) throws InterruptedException {
+		boolean helpable = isHelpable();
+		while (!semaphore.tryAcquire(permits)) {
+			long remainingNanos = getRemainingNanos();
+			if (remainingNanos <= 0) {
+				expire();
+				return false;
+			}
+			if (helpable && help()) {
+				continue;
+			}
+			if (semaphore.tryAcquire(permits, helpable ? Math.min(remainingNanos, HELPING_WAITING_TIMEOUT) : remainingNanos, TimeUnit.NANOSECONDS)) {
+				return true;
+			}
+		}
+		return true;
+	}
+
+	private boolean isHelpable() {
+		return queuedTasks != null && GraphScheduler.isHelpable(executor);
+	}
+
+	private void runQueuedTask() {
+		Runnable task = queuedTasks.poll();
+		if (task != null) {
+			task.run();
+		}
+	}
+
+	//Runs a task queued in the token if a slot of the executor is available: the waiting thread is not
+	//interruptible by the token of the task it was running until the helped task ends. The exceptions thrown
+	//by the task are handled as the executor would do
+	private boolean help() {
+		if (queuedTasks.isEmpty() || !GraphScheduler.tryAcquire(executor)) {
+			return false;
+		}
+		CancellationToken runningToken = CURRENT.get();
+		try {
+			Runnable task = queuedTasks.poll();
+			if (task == null) {
+				return false;
+			}
+			if (runningToken != null) {
+				runningToken.suspend();
+			}
+			try {
+				GraphScheduler.run(executor, task);
+			} catch (Throwable exc) {
+				Thread currentThread = Thread.currentThread();
+				currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, exc);
+			} finally {
+				if (runningToken != null) {
+					runningToken.resume();
+				}
+			}
+			return true;
+		} finally {
+			GraphScheduler.release(executor);
+		}
+	}
+
+	void cancel() {
+		if (cancelled) {
+			return;
+		}
+		cancelled = true;
+		if (interruptRunningTasks) {
+			interruptRunningThreads();
+		}
+	}
+
+	private void expire() {
+		cancelled = true;
+		interruptRunningThreads();
+	}
+
+	private void interruptRunningThreads() {
+		if (runningThreads == null) {
+			return;
+		}
+		synchronized (this) {
+			if (interrupted) {
+				return;
+			}
+			interrupted = true;
+			for (Thread thread : runningThreads) {
+				if (thread != Thread.currentThread()) {
+					thread.interrupt();
+				}
+			}
+		}
+	}
+
+	//Runs the task only if the token has not been cancelled: the exceptions caused by the
+	//interruption of the task are ignored
+	void run(Runnable task) {
+		if (cancelled) {
+			return;
+		}
+		CancellationToken previousToken = register();
+		try {
+			task.run();
+		} catch (Throwable exc) {
+			if (!isCausedByCancellation(exc)) {
+				throw exc;
+			}
+		} finally {
+			unregister(previousToken);
+		}
+	}
+
+	//Starts the task only if the token has not been cancelled: only the part of the task executed by the
+	//current thread can be interrupted, the stages on which the returned one depends are not
+	<T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> task) {
+		if (isCancelled()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CancellationToken previousToken = register();
+		try {
+			return task.get();
+		} catch (Throwable exc) {
+			if (isCausedByCancellation(exc)) {
+				return CompletableFuture.completedFuture(null);
+			}
+			return Functions.failedFuture(exc);
+		} finally {
+			unregister(previousToken);
+		}
+	}
+
+	private CancellationToken register() {
+		CancellationToken previousToken = CURRENT.get();
+		CURRENT.set(this);
+		if (runningThreads != null) {
+			runningThreads.add(Thread.currentThread());
+		}
+		return previousToken;
+	}
+
+	private void unregister(CancellationToken previousToken) {
+		CURRENT.set(previousToken);
+		suspend();
+	}
+
+	private void suspend() {
+		if (runningThreads != null) {
+			//Once the thread is removed it can no longer be interrupted by this token
+			synchronized (this) {
+				runningThreads.remove(Thread.currentThread());
+			}
+			if (interrupted) {
+				Thread.interrupted();
+			}
+		}
+	}
+
+	//The interruption missed while the thread was suspended is restored
+	private void resume() {
+		if (runningThreads != null) {
+			runningThreads.add(Thread.currentThread());
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	Runnable wrap(Runnable task) {
+		return () -> run(task);
+	}
+
+	boolean isCausedByCancellation(Throwable exc) {
+		if (!interrupted) {
+			return false;
+		}
+		for (Throwable cause = exc; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+			if (cause instanceof InterruptedException) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -37,6 +37,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -46,6 +47,7 @@ import org.burningwave.core.assembler.ComponentSupplier;
 import org.burningwave.core.io.PathHelper;
 import org.burningwave.graph.Config.Constraint.Violation;
 
+import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -54,14 +56,30 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class Config implements Serializable {
 
 	private static final long serialVersionUID = -1420680417555794733L;
+	static final String ADAPTIVE_THREADS_NUMBER = "adaptive";
 
 	private String name;
 	private boolean async;
+	private boolean compile;
 	private String threadsNumber;
+	private String executor;
+	private String batchSize;
+	private Integer maxInFlight;
+	private boolean interruptOnStop;
+	private boolean pipeline;
+	private Integer queueCapacity;
+	private Integer workers;
+	private Long timeout;
+	private String[] dependsOn;
+	private String[] reads;
+	private String[] writes;
 	private OnException[] onException;
 	private String iterableObject;
 	private String loopResult;
+	private String loopResultSink;
+	private String loopResultType;
 	private String method;
+	private Reduce reduce;
 	private Config parent;
 	private Config[] functions;
 	public String getName() {
@@ -76,16 +94,101 @@ public class Config implements Serializable {
 	public void setAsync(boolean async) {
 		this.async = async;
 	}
+	public boolean isCompile() {
+		return compile;
+	}
+	public void setCompile(boolean compile) {
+		this.compile = compile;
+	}
 	public String getThreadsNumber() {
 		return threadsNumber;
 	}
 	public Integer getThreadsNumberAsInteger() {
-		return Optional.ofNullable(threadsNumber).map((thNum) -> Integer.valueOf(thNum)).orElse(null);
+		return Optional.ofNullable(threadsNumber).filter(thNum -> !isThreadsNumberAdaptive()).map((thNum) -> Integer.valueOf(thNum)).orElse(null);
+	}
+
+	boolean isThreadsNumberAdaptive() {
+		return ADAPTIVE_THREADS_NUMBER.equalsIgnoreCase(threadsNumber);
 	}
 	public void setThreadsNumber(String threadsNumber) {
 		this.threadsNumber = threadsNumber;
 	}
+	public String getExecutor() {
+		return executor;
+	}
+	public void setExecutor(String executor) {
+		this.executor = executor;
+	}
+	public String getBatchSize() {
+		return batchSize;
+	}
+	public void setBatchSize(String batchSize) {
+		this.batchSize = batchSize;
+	}
+	public Integer getMaxInFlight() {
+		return maxInFlight;
+	}
+	public void setMaxInFlight(Integer maxInFlight) {
+		this.maxInFlight = maxInFlight;
+	}
+	boolean isVirtualThreadsExecutorSelected() {
+		return GraphScheduler.VIRTUAL_THREADS_EXECUTOR_NAME.equals(executor);
+	}
 
+	public boolean isInterruptOnStop() {
+		return interruptOnStop;
+	}
+	public void setInterruptOnStop(boolean interruptOnStop) {
+		this.interruptOnStop = interruptOnStop;
+	}
+	public boolean isPipeline() {
+		return pipeline;
+	}
+	public void setPipeline(boolean pipeline) {
+		this.pipeline = pipeline;
+	}
+	public Integer getQueueCapacity() {
+		return queueCapacity;
+	}
+	public void setQueueCapacity(Integer queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+	public Integer getWorkers() {
+		return workers;
+	}
+	public void setWorkers(Integer workers) {
+		this.workers = workers;
+	}
+	//Returns the number of workers of each stage of a pipelined loop
+	int[] getStageWorkers() {
+		return functions != null ?
+			Stream.of(functions).mapToInt(function -> function.getWorkers() != null ? function.getWorkers() : 1).toArray() :
+			new int[0];
+	}
+	public Long getTimeout() {
+		return timeout;
+	}
+	public void setTimeout(Long timeout) {
+		this.timeout = timeout;
+	}
+	public String[] getDependsOn() {
+		return dependsOn;
+	}
+	public void setDependsOn(String[] dependsOn) {
+		this.dependsOn = dependsOn;
+	}
+	public String[] getReads() {
+		return reads;
+	}
+	public void setReads(String[] reads) {
+		this.reads = reads;
+	}
+	public String[] getWrites() {
+		return writes;
+	}
+	public void setWrites(String[] writes) {
+		this.writes = writes;
+	}
 	public OnException[] getOnException() {
 		return onException;
 	}
@@ -104,12 +207,41 @@ public class Config implements Serializable {
 	public void setLoopResult(String loopResult) {
 		this.loopResult = loopResult;
 	}
+	@JsonSetter("loopResult")
+	void setLoopResult(Object loopResult) {
+		if (loopResult instanceof Map) {
+			Map<?, ?> loopResultAsMap = (Map<?, ?>)loopResult;
+			this.loopResult = (String)loopResultAsMap.get("key");
+			this.loopResultSink = (String)loopResultAsMap.get("sink");
+			this.loopResultType = (String)loopResultAsMap.get("type");
+		} else {
+			this.loopResult = (String)loopResult;
+		}
+	}
+	public String getLoopResultSink() {
+		return loopResultSink;
+	}
+	public void setLoopResultSink(String loopResultSink) {
+		this.loopResultSink = loopResultSink;
+	}
+	public String getLoopResultType() {
+		return loopResultType;
+	}
+	public void setLoopResultType(String loopResultType) {
+		this.loopResultType = loopResultType;
+	}
 	public String getMethod() {
 		return method;
 	}
 	public void setMethod(String method) {
 		this.method = method;
 	}
+	public Reduce getReduce() {
+		return reduce;
+	}
+	public void setReduce(Reduce reduce) {
+		this.reduce = reduce;
+	}
 	public Config getParent() {
 		return parent;
 	}
@@ -123,6 +255,39 @@ public class Config implements Serializable {
 		}
 	}
 
+	public static class Reduce implements Serializable  {
+		private static final long serialVersionUID = 4371961206125683530L;
+
+		private String identity;
+		private String accumulator;
+		private String combiner;
+		private String result;
+		public String getIdentity() {
+			return identity;
+		}
+		public void setIdentity(String identity) {
+			this.identity = identity;
+		}
+		public String getAccumulator() {
+			return accumulator;
+		}
+		public void setAccumulator(String accumulator) {
+			this.accumulator = accumulator;
+		}
+		public String getCombiner() {
+			return combiner;
+		}
+		public void setCombiner(String combiner) {
+			this.combiner = combiner;
+		}
+		public String getResult() {
+			return result;
+		}
+		public void setResult(String result) {
+			this.result = result;
+		}
+	}
+
 	public static class OnException implements Serializable  {
 		private static final long serialVersionUID = -1638659620384801346L;
 
@@ -205,9 +370,19 @@ public class Config implements Serializable {
 					config.setLoopResult(config.getLoopResult().replace("context[", "container["));
 				}
 			}
+			if (config.getReduce() != null && Strings.isNotEmpty(config.getReduce().getResult())) {
+				if (config.getReduce().getResult().contains("currentIterationResult")) {
+					config.getReduce().setResult(config.getReduce().getResult().replace("context.", ""));
+				}
+				if (config.getReduce().getResult().contains("context[")) {
+					config.getReduce().setResult(config.getReduce().getResult().replace("context[", "container["));
+				}
+			}
 			if (config.isAsync() && isThreadNumberAutoSet(config)) {
+				//Virtual threads don't need to be sized: the tasks of the group are not limited
 				config.setThreadsNumber(
-					Integer.toString(computeThreadsNumber(config))
+					config.isVirtualThreadsExecutorSelected() ? null :
+						Integer.toString(computeThreadsNumber(config))
 				);
 			}
 			if (config.getFunctions() != null) {
@@ -217,11 +392,9 @@ public class Config implements Serializable {
 			}
 		}
 
+		//The nested groups don't need to be sized on the number of threads of their parent: the threads that
+		//wait for their children run the queued tasks of the children
 		private Integer computeThreadsNumber(Config config) {
-			Config parent = config.getParent();
-			if (parent != null && parent.isAsync() && Strings.isNotEmpty(parent.getIterableObject())) {
-				return (parent.getThreadsNumberAsInteger() * config.getFunctions().length) + 1;
-			}
 			if (config.isAsync() && Strings.isNotEmpty(config.getIterableObject()) && isThreadNumberAutoSet(config)) {
 				return Runtime.getRuntime().availableProcessors();
 			}
@@ -251,11 +424,86 @@ public class Config implements Serializable {
 			return constraintViolations;
 		}
 
+		private boolean isBuiltInLoopResultSink(String sink) {
+			return LoopResultSink.COLLECTOR.equals(sink) || LoopResultSink.SPARSE_MAP.equals(sink);
+		}
+
 		private List<Violation> check(Config config) {
 			List<Constraint.Violation> constraintViolations = new ArrayList<>();
-			if (!config.isAsync() && Strings.isNotEmpty(config.getThreadsNumber())) {
+			if (!config.isAsync() && !config.isPipeline() && Strings.isNotEmpty(config.getThreadsNumber())) {
+				constraintViolations.add(
+					Violation.create("\"threadsNumber\" property must be null when \"async\" and \"pipeline\" properties are false (" + config.getName() + ")")
+				);
+			}
+			//The workers of a pipeline wait for the items so they can't share a number of threads that can change
+			if (config.isPipeline() && Strings.isNotEmpty(config.getThreadsNumber()) && !config.getThreadsNumber().matches("[1-9][0-9]*")) {
+				constraintViolations.add(
+					Violation.create("\"threadsNumber\" property must be a positive number when \"pipeline\" property is true (" + config.getName() + ")")
+				);
+			} else if (config.isPipeline() && Strings.isNotEmpty(config.getThreadsNumber()) &&
+				config.getThreadsNumberAsInteger() < Pipeline.getWorkersCount(config.getStageWorkers())) {
+				constraintViolations.add(
+					Violation.create("\"threadsNumber\" property must be at least the number of workers of the stages when \"pipeline\" property is true (" + config.getName() + ")")
+				);
+			}
+			if (Strings.isNotEmpty(config.getThreadsNumber()) && !config.getThreadsNumber().matches("(?i)auto|" + ADAPTIVE_THREADS_NUMBER + "|[1-9][0-9]*")) {
+				constraintViolations.add(
+					Violation.create("\"threadsNumber\" property must be a positive number, \"auto\" or \"" + ADAPTIVE_THREADS_NUMBER + "\" (" + config.getName() + ")")
+				);
+			}
+			if (!config.isAsync() && !config.isPipeline() && Strings.isNotEmpty(config.getExecutor())) {
 				constraintViolations.add(
-					Violation.create("\"threadsNumber\" property must be null when \"async\" property is true (" + config.getName() + ")")
+					Violation.create("\"executor\" property must be null when \"async\" and \"pipeline\" properties are false (" + config.getName() + ")")
+				);
+			}
+			if (!config.isAsync() && config.isInterruptOnStop()) {
+				constraintViolations.add(
+					Violation.create("\"interruptOnStop\" property can be true only when \"async\" property is true (" + config.getName() + ")")
+				);
+			}
+			if (config.getTimeout() != null && config.getTimeout() <= 0) {
+				constraintViolations.add(
+					Violation.create("\"timeout\" property must be a positive number of milliseconds (" + config.getName() + ")")
+				);
+			}
+			if (Strings.isNotEmpty(config.getBatchSize()) && (!config.isAsync() || Strings.isEmpty(config.getIterableObject()))) {
+				constraintViolations.add(
+					Violation.create("\"batchSize\" property can be valorized only when \"async\" property is true and \"iterableObject\" property is valorized (" + config.getName() + ")")
+				);
+			}
+			if (Strings.isNotEmpty(config.getBatchSize()) && !config.getBatchSize().matches("(?i)auto|[1-9][0-9]*")) {
+				constraintViolations.add(
+					Violation.create("\"batchSize\" property must be a positive number or \"auto\" (" + config.getName() + ")")
+				);
+			}
+			if (config.getMaxInFlight() != null && (!(config.isAsync() || config.isPipeline()) || Strings.isEmpty(config.getIterableObject()))) {
+				constraintViolations.add(
+					Violation.create("\"maxInFlight\" property can be valorized only when \"async\" or \"pipeline\" property is true and \"iterableObject\" property is valorized (" + config.getName() + ")")
+				);
+			}
+			if (config.isPipeline() && (config.isAsync() || Strings.isEmpty(config.getIterableObject()))) {
+				constraintViolations.add(
+					Violation.create("\"pipeline\" property can be true only when \"async\" property is false and \"iterableObject\" property is valorized (" + config.getName() + ")")
+				);
+			}
+			if (config.getQueueCapacity() != null && (!config.isPipeline() || config.getQueueCapacity() < 1)) {
+				constraintViolations.add(
+					Violation.create("\"queueCapacity\" property can be valorized only when \"pipeline\" property is true and must be greater than zero (" + config.getName() + ")")
+				);
+			}
+			if (config.getFunctions() != null && !config.isPipeline() && Stream.of(config.getFunctions()).anyMatch(function -> function.getWorkers() != null)) {
+				constraintViolations.add(
+					Violation.create("\"workers\" property can be valorized only on the functions of a group whose \"pipeline\" property is true (" + config.getName() + ")")
+				);
+			}
+			if (config.getWorkers() != null && config.getWorkers() < 1) {
+				constraintViolations.add(
+					Violation.create("\"workers\" property must be greater than zero (" + config.getName() + ")")
+				);
+			}
+			if (config.getMaxInFlight() != null && config.getMaxInFlight() < 1) {
+				constraintViolations.add(
+					Violation.create("\"maxInFlight\" property must be greater than zero (" + config.getName() + ")")
 				);
 			}
 			if (Strings.isEmpty(config.getIterableObject()) && Strings.isNotEmpty(config.getLoopResult())) {
@@ -263,16 +511,85 @@ public class Config implements Serializable {
 					Violation.create("\"inputCollection\" property must be valorized when \"loopResult\" property is valorized (" + config.getName() + ")")
 				);
 			}
+			if (Strings.isEmpty(config.getIterableObject()) && Strings.isNotEmpty(config.getLoopResultSink())) {
+				constraintViolations.add(
+					Violation.create("\"iterableObject\" property must be valorized when \"loopResult.sink\" property is valorized (" + config.getName() + ")")
+				);
+			}
+			if (Strings.isEmpty(config.getLoopResult()) && isBuiltInLoopResultSink(config.getLoopResultSink())) {
+				constraintViolations.add(
+					Violation.create("\"loopResult.key\" property must be valorized when \"loopResult.sink\" property is \"" + config.getLoopResultSink() + "\" (" + config.getName() + ")")
+				);
+			}
+			if (Strings.isNotEmpty(config.getLoopResultType()) && !LoopResult.isValidType(config.getLoopResultType())) {
+				constraintViolations.add(
+					Violation.create("\"loopResult.type\" property must be one of \"object\", \"int\", \"long\" or \"double\" (" + config.getName() + ")")
+				);
+			}
+			if (Strings.isNotEmpty(config.getLoopResultType()) && (Strings.isEmpty(config.getLoopResult()) || Strings.isNotEmpty(config.getLoopResultSink()))) {
+				constraintViolations.add(
+					Violation.create("\"loopResult.type\" property can be valorized only when \"loopResult.key\" property is valorized and \"loopResult.sink\" property is not (" + config.getName() + ")")
+				);
+			}
+			if (config.getReduce() != null && Strings.isEmpty(config.getIterableObject())) {
+				constraintViolations.add(
+					Violation.create("\"iterableObject\" property must be valorized when \"reduce\" property is valorized (" + config.getName() + ")")
+				);
+			}
+			if (config.getReduce() != null && (
+				Strings.isEmpty(config.getReduce().getIdentity()) || Strings.isEmpty(config.getReduce().getAccumulator()) ||
+				Strings.isEmpty(config.getReduce().getCombiner()) || Strings.isEmpty(config.getReduce().getResult()))
+			) {
+				constraintViolations.add(
+					Violation.create("\"identity\", \"accumulator\", \"combiner\" and \"result\" properties of \"reduce\" must be valorized (" + config.getName() + ")")
+				);
+			}
 			if (Strings.isNotEmpty(config.getMethod()) && config.getFunctions() != null) {
 				constraintViolations.add(
 					Violation.create("\"functions\" array property must be null when \"method\" property is valorized " + config.getName() + ")")
 				);
 			}
+			if (config.isCompile() && config.getParent() != null) {
+				constraintViolations.add(
+					Violation.create("\"compile\" property can be true only on the root node (" + config.getName() + ")")
+				);
+			}
 			if (Strings.isNotEmpty(config.getMethod()) && config.isAsync()) {
 				constraintViolations.add(
 					Violation.create("\"async\" array property must be false or null when \"method\" property is valorized " + config.getName() + ")")
 				);
 			}
+			if (config.getFunctions() != null && DependencyGraph.hasDependencies(config.getFunctions())) {
+				constraintViolations.addAll(checkDependencies(config));
+			}
+			return constraintViolations;
+		}
+
+		private List<Violation> checkDependencies(Config config) {
+			List<Constraint.Violation> constraintViolations = new ArrayList<>();
+			if (!config.isAsync() || Strings.isNotEmpty(config.getIterableObject())) {
+				constraintViolations.add(
+					Violation.create("\"dependsOn\" property can be valorized only on the functions of a group whose \"async\" property is true and \"iterableObject\" property is not valorized (" + config.getName() + ")")
+				);
+			}
+			for (Config function : config.getFunctions()) {
+				for (String dependency : Optional.ofNullable(function.getDependsOn()).orElseGet(() -> new String[0])) {
+					long matches = Stream.of(config.getFunctions()).filter(sibling -> dependency.equals(sibling.getName())).count();
+					if (matches != 1) {
+						constraintViolations.add(
+							Violation.create("\"dependsOn\" property must refer to exactly one function of the same group: found " + matches + " functions named \"" + dependency + "\" (" + function.getName() + ")")
+						);
+					}
+				}
+			}
+			if (constraintViolations.isEmpty()) {
+				List<String> cycle = DependencyGraph.findCycle(config.getFunctions(), DependencyGraph.resolve(config.getFunctions()));
+				if (cycle != null) {
+					constraintViolations.add(
+						Violation.create("\"dependsOn\" properties of the functions " + cycle + " form a cycle (" + config.getName() + ")")
+					);
+				}
+			}
 			return constraintViolations;
 		}
 
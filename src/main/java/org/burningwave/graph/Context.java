@@ -29,10 +29,21 @@
 package org.burningwave.graph;
 
 import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -56,10 +67,14 @@ public interface Context extends
 
 	public <T> T get(Object key);
 
+	public <T> T get(ContextKey<T> key);
+
 	public Context removeAll(Object... keys);
 
 	public <K, V> Context put(K key, V value);
 
+	public <T> Context put(ContextKey<T> key, T value);
+
 	public Context putAll(Map<?, ?> inputContainer);
 
 	public Context putAll(Context input);
@@ -69,17 +84,21 @@ public interface Context extends
 
 	public Context createSymmetricClone();
 
+	//Returns true if the deadline of the execution has been reached
+	public boolean isExpired();
+
 	static class IterationContext<T> implements Serializable {
 
 		private static final long serialVersionUID = 9013466754089134552L;
 
 		private T iterableObject;
-		private Object[] loopResult;
+		private LoopResult loopResult;
 		private Object currentIteratedObject;
-		private Integer index;
+		private int index;
 		private Object currentIteratedObjectKey;
+		private Object currentIterationResult;
 
-		private IterationContext(T iterableObject, Object[] loopResult, Object input, Integer index, Object key){
+		private IterationContext(T iterableObject, LoopResult loopResult, Object input, int index, Object key){
 			this.iterableObject = iterableObject;
 			this.currentIteratedObject = input;
 			this.index = index;
@@ -87,7 +106,7 @@ public interface Context extends
 			this.currentIteratedObjectKey = key;
 		}
 
-		static <T> IterationContext<T> create(T iterableObject, Object[] loopResult, Object input, Integer index, Object key) {
+		static <T> IterationContext<T> create(T iterableObject, LoopResult loopResult, Object input, int index, Object key) {
 			return new IterationContext<>(iterableObject, loopResult, input, index, key);
 		}
 
@@ -98,11 +117,44 @@ public interface Context extends
 			this.currentIteratedObject = input;
 		}
 
+		//When the results are not buffered the result of the current iteration is kept
+		//here until the iteration ends
 		Object getCurrentIterationResult() {
-			return loopResult[index];
+			return loopResult.isBuffered() ? loopResult.get(index) : currentIterationResult;
 		}
 		void setCurrentIterationResult(Object output) {
-			this.loopResult[index] = output;
+			if (loopResult.isBuffered()) {
+				this.loopResult.set(index, output);
+			} else {
+				this.currentIterationResult = output;
+			}
+		}
+		void setCurrentIterationResult(int output) {
+			if (loopResult.isBuffered()) {
+				this.loopResult.setInt(index, output);
+			} else {
+				this.currentIterationResult = output;
+			}
+		}
+		void setCurrentIterationResult(long output) {
+			if (loopResult.isBuffered()) {
+				this.loopResult.setLong(index, output);
+			} else {
+				this.currentIterationResult = output;
+			}
+		}
+		void setCurrentIterationResult(double output) {
+			if (loopResult.isBuffered()) {
+				this.loopResult.setDouble(index, output);
+			} else {
+				this.currentIterationResult = output;
+			}
+		}
+		void end() {
+			if (loopResult != null && !loopResult.isBuffered()) {
+				loopResult.release(index, getKey(), currentIterationResult);
+				currentIterationResult = null;
+			}
 		}
 		T getIterableObject() {
 			return iterableObject;
@@ -110,23 +162,23 @@ public interface Context extends
 		void setIterableObject(T iterableObject) {
 			this.iterableObject = iterableObject;
 		}
-		Object[] getLoopResult() {
+		LoopResult getLoopResult() {
 			return loopResult;
 		}
-		void setLoopResult(Object[] loopResult) {
+		void setLoopResult(LoopResult loopResult) {
 			this.loopResult = loopResult;
 		}
 
-		void setIndex(Integer index) {
+		void setIndex(int index) {
 			this.index = index;
 		}
-		Integer getIndex() {
+		int getIndex() {
 			return this.index;
 		}
 
-
+		//When the key is null the iterated object is identified by its index
 		<K> K getKey() {
-			return (K)currentIteratedObjectKey;
+			return (K)(currentIteratedObjectKey != null ? currentIteratedObjectKey : Integer.valueOf(index));
 		}
 
 		void setKey(Object key) {
@@ -137,36 +189,21 @@ public interface Context extends
 
 	static abstract class Abst implements Context {
 		private static final long serialVersionUID = 8260204603417876527L;
+		private static final String[] NO_PROPERTY_NAMES = new String[0];
 
 		protected Map<Object, Object> container;
 		protected Map<String, Directive> executionDirectiveForGroupName;
 		protected IterationContext<Object> iterationContext;
 		protected Mutex.Manager.ForMap<Operation, Object, Object> mutexManager;
+		protected boolean deadlineSet;
+		protected long deadline;
+		private transient CompletableFuture<?> lateTasks;
+		transient ContextPool pool;
+		//1 while the context is idle in the pool
+		transient volatile int pooled;
 
 		Abst() {
-			container = new ConcurrentHashMap<Object, Object>() {
-				private static final long serialVersionUID = -4473137080512706444L;
-
-				@Override
-				public Object put(Object key, Object value) {
-					Object val = null;
-					if (value != null) {
-						val = super.put(key, value);
-					} else {
-						val = super.remove(key, value);
-					}
-					mutexManager.unlockMutexes(Operation.PUT, key, value);
-					return val;
-				}
-
-				@Override
-				public Object remove(Object key) {
-					Object value = super.remove(key);
-					mutexManager.unlockMutexes(Operation.REMOVE, key, value);
-					return value;
-				}
-
-			};
+			container = new Container(this);
 			executionDirectiveForGroupName = new ConcurrentHashMap<>();
 			mutexManager = Mutex.Manager.ForMap.create(this::get);
 
@@ -184,6 +221,90 @@ public interface Context extends
 
 		abstract Context putAllDirectives(Map<String, Directive> directives);
 
+		//Must be called before the context is used: the keys registered later are stored in the map
+		Context.Abst useSlots(ContextKey.Registry registry) {
+			((Container)container).useSlots(registry);
+			return this;
+		}
+
+		//Overridden by the field-backed contexts generated by the Factory: the properties of their interfaces are
+		//stored in fields and the container reads and writes them by index
+		protected int propertyIndexOf(Object key) {
+			return -1;
+		}
+
+		protected String[] getPropertyNames() {
+			return NO_PROPERTY_NAMES;
+		}
+
+		protected Object getProperty(int index) {
+			return null;
+		}
+
+		//A null value resets the property to its default value
+		protected void setProperty(int index, Object value) {}
+
+		//Returns a clone that shares the container and the current iteration of this context and whose deadline
+		//(expressed in System.nanoTime() units) is the earliest between the one of this context and the timeout
+		Context.Abst createBoundedClone(long timeout) {
+			Context.Abst clone = (Context.Abst)createSymmetricClone();
+			clone.iterationContext = iterationContext;
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+			clone.deadlineSet = true;
+			clone.deadline = deadlineSet && this.deadline - deadline < 0 ? this.deadline : deadline;
+			return clone;
+		}
+
+		protected void copyDeadlineTo(Context.Abst context) {
+			context.deadlineSet = deadlineSet;
+			context.deadline = deadline;
+		}
+
+		@Override
+		public boolean isExpired() {
+			return deadlineSet && System.nanoTime() - deadline >= 0;
+		}
+
+		//The context of the outer execution, which the clones of this context write in
+		Context.Abst getRoot() {
+			return this;
+		}
+
+		//The tasks still running when an execution reached its deadline: the root context is not handed to
+		//another execution nor closed until they are completed
+		void addLateTasks(CompletableFuture<?> tasks) {
+			Context.Abst root = getRoot();
+			synchronized (root) {
+				root.lateTasks = root.lateTasks != null ? CompletableFuture.allOf(root.lateTasks, tasks) : tasks;
+			}
+		}
+
+		//Returns null if all the late tasks are completed
+		synchronized CompletableFuture<?> removeLateTasks() {
+			CompletableFuture<?> lateTasks = this.lateTasks;
+			this.lateTasks = null;
+			return lateTasks != null && !lateTasks.isDone() ? lateTasks : null;
+		}
+
+		//Returns Long.MAX_VALUE if the execution has no deadline
+		long getRemainingNanos() {
+			return deadlineSet ? Math.max(0, deadline - System.nanoTime()) : Long.MAX_VALUE;
+		}
+
+		//The waiting is bounded by the remaining time of the execution
+		int[] computeWaitingTimeout(int... timeout) {
+			long remainingNanos = getRemainingNanos();
+			if (remainingNanos == Long.MAX_VALUE) {
+				return timeout;
+			}
+			//Rounded up so that the waiting does not end before the deadline
+			long remainingMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999999));
+			if (timeout != null && timeout.length > 0 && timeout[0] > 0) {
+				remainingMillis = Math.min(remainingMillis, timeout[0]);
+			}
+			return new int[] {(int)Math.min(Integer.MAX_VALUE, remainingMillis)};
+		}
+
 		@Override
 
 		public <T> T get(Object key) {
@@ -194,6 +315,12 @@ public interface Context extends
 		}
 
 
+		@Override
+		public <T> T get(ContextKey<T> key) {
+			return (T)((Container)container).get(key);
+		}
+
+
 		<T> IterationContext<T> removeIterationContext() {
 			IterationContext<T> itrCnt = (IterationContext<T>)iterationContext;
 			setCurrentIterationContext(null);
@@ -218,23 +345,23 @@ public interface Context extends
 				).findFirst().isPresent();
 		}
 
+		//Called for each iterated item: the objects are set on a plain way to avoid allocations
 		void setCurrentIterationObjects(
 				Object iterableObject,
-				Object[] loopResult,
+				LoopResult loopResult,
 				Object currentIterationObject,
-				Integer index,
+				int index,
 				Object key) {
-			Optional.of(
-				Optional.ofNullable(iterationContext).orElseGet(() ->
-					this.iterationContext = IterationContext.create(iterableObject, loopResult, currentIterationObject, index, key)
-				)
-			).ifPresent(itrCnt -> {
-				itrCnt.setIterableObject(iterableObject);
-				itrCnt.setLoopResult(loopResult);
-				itrCnt.setCurrentIteratedObject(currentIterationObject);
-				itrCnt.setIndex(index);
-				itrCnt.setKey(key);
-			});
+			IterationContext<Object> itrCnt = iterationContext;
+			if (itrCnt == null) {
+				this.iterationContext = IterationContext.create(iterableObject, loopResult, currentIterationObject, index, key);
+				return;
+			}
+			itrCnt.setIterableObject(iterableObject);
+			itrCnt.setLoopResult(loopResult);
+			itrCnt.setCurrentIteratedObject(currentIterationObject);
+			itrCnt.setIndex(index);
+			itrCnt.setKey(key);
 		}
 
 		@Override
@@ -243,6 +370,12 @@ public interface Context extends
 					.map((iterationContext) -> iterationContext.getIndex()).orElse(null);
 		}
 
+		@Override
+		public int getCurrentIterationIndexAsInt() {
+			IterationContext<Object> itrCnt = iterationContext;
+			return itrCnt != null ? itrCnt.getIndex() : -1;
+		}
+
 		@Override
 
 		public <T> T getCurrentIteratedObject() {
@@ -261,6 +394,29 @@ public interface Context extends
 			).setCurrentIterationResult(obj);
 		}
 
+		@Override
+		public void setCurrentIterationResult(int value) {
+			retrieveIterationContextForResult().setCurrentIterationResult(value);
+		}
+
+		@Override
+		public void setCurrentIterationResult(long value) {
+			retrieveIterationContextForResult().setCurrentIterationResult(value);
+		}
+
+		@Override
+		public void setCurrentIterationResult(double value) {
+			retrieveIterationContextForResult().setCurrentIterationResult(value);
+		}
+
+		private IterationContext<Object> retrieveIterationContextForResult() {
+			IterationContext<Object> itrCnt = iterationContext;
+			if (itrCnt == null) {
+				throw new NullPointerException("setCurrentIterationResult calling failed cause " + getClass() + " not contains currentIterationContext");
+			}
+			return itrCnt;
+		}
+
 
 		@Override
 
@@ -282,6 +438,15 @@ public interface Context extends
 		}
 
 
+		//Restores the state of a new context keeping the capacity of the maps
+		void reset() {
+			clear();
+			deadlineSet = false;
+			deadline = 0;
+			lateTasks = null;
+		}
+
+
 		<K, V> void clearContainer() {
 			container.forEach((key, value) ->
 				mutexManager.unlockMutexes(Operation.REMOVE, key, container.remove(key))
@@ -298,6 +463,217 @@ public interface Context extends
 		}
 	}
 
+	//Values of a context shared by its symmetric clones: the values of the properties of a field-backed context
+	//are stored in its fields, the values of the keys that have a slot in an array and the others in the map.
+	//The mutexes waiting for a key are unlocked on each change of its value. All the operations and the views
+	//of the container are based on get, put, remove and forEach, so they see the values of the fields and of
+	//the slots and notify the mutexes: the compound operations, as putIfAbsent or compute, are not atomic
+	static class Container extends AbstractMap<Object, Object> implements Serializable {
+		private static final long serialVersionUID = -4473137080512706444L;
+
+		private final Context.Abst context;
+		private final Map<Object, Object> map;
+		private ContextKey.Registry registry;
+		private AtomicReferenceArray<Object> slots;
+
+		Container(Context.Abst context) {
+			this.context = context;
+			this.map = new ConcurrentHashMap<>();
+		}
+
+		void useSlots(ContextKey.Registry registry) {
+			this.registry = registry;
+			this.slots = new AtomicReferenceArray<>(registry.size());
+		}
+
+		int slotOf(Object key) {
+			return registry != null ? registry.slotOf(key, slots.length()) : -1;
+		}
+
+		int slotOf(ContextKey<?> key) {
+			return key.getRegistry() == registry && key.getSlot() < slots.length() ? key.getSlot() : -1;
+		}
+
+		//A key registered in another Factory is resolved by name
+		Object get(ContextKey<?> key) {
+			int property = context.propertyIndexOf(key.getName());
+			if (property >= 0) {
+				return context.getProperty(property);
+			}
+			int slot = slotOf(key);
+			return slot >= 0 ? slots.get(slot) : get(key.getName());
+		}
+
+		Object put(ContextKey<?> key, Object value) {
+			int property = context.propertyIndexOf(key.getName());
+			if (property >= 0) {
+				return putInProperty(property, key.getName(), value);
+			}
+			int slot = slotOf(key);
+			if (slot < 0) {
+				return put(key.getName(), value);
+			}
+			return putInSlot(slot, key.getName(), value);
+		}
+
+		@Override
+		public Object get(Object key) {
+			int property = context.propertyIndexOf(key);
+			if (property >= 0) {
+				return context.getProperty(property);
+			}
+			int slot = slotOf(key);
+			return slot >= 0 ? slots.get(slot) : map.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			int property = context.propertyIndexOf(key);
+			if (property >= 0) {
+				return context.getProperty(property) != null;
+			}
+			int slot = slotOf(key);
+			return slot >= 0 ? slots.get(slot) != null : map.containsKey(key);
+		}
+
+		//As for the map, putting a null value doesn't remove the key
+		@Override
+		public Object put(Object key, Object value) {
+			int property = context.propertyIndexOf(key);
+			if (property >= 0) {
+				return putInProperty(property, key, value);
+			}
+			int slot = slotOf(key);
+			if (slot >= 0) {
+				return putInSlot(slot, key, value);
+			}
+			Object val = null;
+			if (value != null) {
+				val = map.put(key, value);
+			} else {
+				val = map.remove(key, value);
+			}
+			context.mutexManager.unlockMutexes(Operation.PUT, key, value);
+			return val;
+		}
+
+		private Object putInProperty(int property, Object key, Object value) {
+			Object val = context.getProperty(property);
+			if (value != null) {
+				context.setProperty(property, value);
+			}
+			context.mutexManager.unlockMutexes(Operation.PUT, key, value);
+			return val;
+		}
+
+		private Object putInSlot(int slot, Object key, Object value) {
+			Object val = value != null ? slots.getAndSet(slot, value) : slots.get(slot);
+			context.mutexManager.unlockMutexes(Operation.PUT, key, value);
+			return val;
+		}
+
+		@Override
+		public Object remove(Object key) {
+			int property = context.propertyIndexOf(key);
+			if (property >= 0) {
+				Object value = context.getProperty(property);
+				context.setProperty(property, null);
+				context.mutexManager.unlockMutexes(Operation.REMOVE, key, value);
+				return value;
+			}
+			int slot = slotOf(key);
+			Object value = slot >= 0 ? slots.getAndSet(slot, null) : map.remove(key);
+			context.mutexManager.unlockMutexes(Operation.REMOVE, key, value);
+			return value;
+		}
+
+		@Override
+		public void forEach(BiConsumer<? super Object, ? super Object> action) {
+			String[] propertyNames = context.getPropertyNames();
+			for (int property = 0; property < propertyNames.length; property++) {
+				Object value = context.getProperty(property);
+				if (value != null) {
+					action.accept(propertyNames[property], value);
+				}
+			}
+			if (slots != null) {
+				for (int slot = 0; slot < slots.length(); slot++) {
+					Object value = slots.get(slot);
+					if (value != null) {
+						action.accept(registry.nameOf(slot), value);
+					}
+				}
+			}
+			map.forEach(action);
+		}
+
+		@Override
+		public int size() {
+			int size = map.size();
+			for (int property = 0; property < context.getPropertyNames().length; property++) {
+				if (context.getProperty(property) != null) {
+					++size;
+				}
+			}
+			if (slots != null) {
+				for (int slot = 0; slot < slots.length(); slot++) {
+					if (slots.get(slot) != null) {
+						++size;
+					}
+				}
+			}
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return size() == 0;
+		}
+
+		//The iterators traverse a snapshot of the values and remove them through the container
+		@Override
+		public Set<Map.Entry<Object, Object>> entrySet() {
+			return new AbstractSet<Map.Entry<Object, Object>>() {
+
+				@Override
+				public Iterator<Map.Entry<Object, Object>> iterator() {
+					List<Map.Entry<Object, Object>> entries = new ArrayList<>();
+					Container.this.forEach((key, value) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(key, value)));
+					Iterator<Map.Entry<Object, Object>> iterator = entries.iterator();
+					return new Iterator<Map.Entry<Object, Object>>() {
+						private Map.Entry<Object, Object> entry;
+
+						@Override
+						public boolean hasNext() {
+							return iterator.hasNext();
+						}
+
+						@Override
+						public Map.Entry<Object, Object> next() {
+							return entry = iterator.next();
+						}
+
+						@Override
+						public void remove() {
+							if (entry == null) {
+								throw new IllegalStateException();
+							}
+							Container.this.remove(entry.getKey());
+							entry = null;
+						}
+
+					};
+				}
+
+				@Override
+				public int size() {
+					return Container.this.size();
+				}
+
+			};
+		}
+	}
+
 	static class Simple extends Abst  {
 
 		private static final long serialVersionUID = -7459443347382714306L;
@@ -323,6 +699,12 @@ public interface Context extends
 			return this;
 		}
 
+		@Override
+		public <T> Context put(ContextKey<T> key, T value) {
+			((Container)container).put(key, value);
+			return this;
+		}
+
 		@Override
 		public Context removeAll(Object... keys) {
 			if (keys != null && keys.length > 0) {
@@ -366,6 +748,7 @@ public interface Context extends
 		public Context createSymmetricClone() {
 			Simple context = new Simple(container, executionDirectiveForGroupName, mutexManager);
 			context.parent = this;
+			copyDeadlineTo(context);
 			return context;
 		}
 
@@ -377,9 +760,22 @@ public interface Context extends
 			return this;
 		}
 
+		@Override
+		Context.Abst getRoot() {
+			return parent != null ? cast(parent).getRoot() : this;
+		}
+
+		//The contexts acquired from a pool are given back to it: if some tasks are still writing in the context
+		//it is closed when they are completed
 		@Override
 		public void close() {
-			if (parent == null) {
+			if (parent != null) {
+				return;
+			}
+			CompletableFuture<?> lateTasks = removeLateTasks();
+			if (lateTasks != null) {
+				lateTasks.whenComplete((result, exc) -> close());
+			} else if (pool == null || !pool.release(this)) {
 				super.close();
 			}
 		}
@@ -387,14 +783,26 @@ public interface Context extends
 
 		@Override
 		public <V> V waitForPut(Object key, Predicate<V> predicate, int... timeout) throws InterruptedException {
-			return (V)mutexManager.waitFor(Operation.PUT, key, (Predicate<Object>)predicate);
+			return (V)mutexManager.waitFor(Operation.PUT, key, (Predicate<Object>)predicate, computeWaitingTimeout(timeout));
 		}
 
 
 		@Override
 
 		public <V> V waitForRemove(Object key, Predicate<V> predicate, int... timeout) throws InterruptedException {
-			return (V)mutexManager.waitFor(Operation.REMOVE, key, (Predicate<Object>)predicate);
+			return (V)mutexManager.waitFor(Operation.REMOVE, key, (Predicate<Object>)predicate, computeWaitingTimeout(timeout));
+		}
+
+
+		@Override
+		public <V> CompletionStage<V> onPut(Object key, Predicate<V> predicate, int... timeout) {
+			return (CompletionStage<V>)mutexManager.listenFor(Operation.PUT, key, (Predicate<Object>)predicate, computeWaitingTimeout(timeout));
+		}
+
+
+		@Override
+		public <V> CompletionStage<V> onRemove(Object key, Predicate<V> predicate, int... timeout) {
+			return (CompletionStage<V>)mutexManager.listenFor(Operation.REMOVE, key, (Predicate<Object>)predicate, computeWaitingTimeout(timeout));
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Typed key of a value of the context: the keys are registered in the Factory that assigns to each of them a slot.
+//The contexts created by the Factory store the values of the keys registered before their creation in an array,
+//so that accessing them by key doesn't need hashing, while the values of the other keys are stored in the map
+//of the context with their name as the values of any other dynamic key
+public final class ContextKey<T> implements Serializable {
+	private static final long serialVersionUID = -2620858101848823117L;
+
+	private final String name;
+	private final Class<T> type;
+	private final Registry registry;
+	private final int slot;
+
+	private ContextKey(String name, Class<T> type, Registry registry, int slot) {
+		this.name = name;
+		this.type = type;
+		this.registry = registry;
+		this.slot = slot;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Class<T> getType() {
+		return type;
+	}
+
+	Registry getRegistry() {
+		return registry;
+	}
+
+	int getSlot() {
+		return slot;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	static class Registry implements Serializable {
+		private static final long serialVersionUID = 4434640689627183580L;
+
+		private final Map<String, ContextKey<?>> keys;
+		private volatile String[] names;
+
+		private Registry() {
+			keys = new ConcurrentHashMap<>();
+			names = new String[0];
+		}
+
+		static Registry create() {
+			return new Registry();
+		}
+
+		//A key with the same name of a registered one shares its slot
+		@SuppressWarnings("unchecked")
+		<T> ContextKey<T> getOrCreate(String name, Class<T> type) {
+			ContextKey<?> key = keys.get(name);
+			if (key == null) {
+				synchronized (this) {
+					if ((key = keys.get(name)) == null) {
+						String[] names = Arrays.copyOf(this.names, this.names.length + 1);
+						names[names.length - 1] = name;
+						key = new ContextKey<>(name, type, this, names.length - 1);
+						keys.put(name, key);
+						this.names = names;
+					}
+				}
+			}
+			return key.type == type ? (ContextKey<T>)key : new ContextKey<>(name, type, this, key.slot);
+		}
+
+		//Returns -1 if the key has no slot among the specified number of slots
+		int slotOf(Object key, int slotsCount) {
+			if (key instanceof String) {
+				ContextKey<?> contextKey = keys.get(key);
+				if (contextKey != null && contextKey.slot < slotsCount) {
+					return contextKey.slot;
+				}
+			}
+			return -1;
+		}
+
+		String nameOf(int slot) {
+			return names[slot];
+		}
+
+		int size() {
+			return names.length;
+		}
+	}
+}
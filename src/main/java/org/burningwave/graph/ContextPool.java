@@ -0,0 +1,119 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Supplier;
+
+import org.burningwave.core.Component;
+
+//Hands out cleared contexts and takes them back when they are closed, so that a context and its maps are
+//not allocated for each execution: the maps of a reused context keep the capacity reached in the previous
+//executions. The contexts released when the pool is full or closed are closed
+@SuppressWarnings("unchecked")
+public class ContextPool implements Component {
+	static final int DEFAULT_MAX_SIZE = 256;
+	private static final AtomicIntegerFieldUpdater<Context.Abst> POOLED = AtomicIntegerFieldUpdater.newUpdater(Context.Abst.class, "pooled");
+
+	private Supplier<?> contextSupplier;
+	private Queue<Context.Abst> contexts;
+	private final AtomicInteger idleContextsCounter;
+	private final int maxSize;
+	private volatile boolean closed;
+
+	private ContextPool(Supplier<?> contextSupplier, int maxSize) {
+		this.contextSupplier = contextSupplier;
+		this.maxSize = maxSize;
+		this.contexts = new ConcurrentLinkedQueue<>();
+		this.idleContextsCounter = new AtomicInteger();
+	}
+
+	static ContextPool create(Supplier<?> contextSupplier, int maxSize) {
+		return new ContextPool(contextSupplier, maxSize);
+	}
+
+	public <T> T acquire() {
+		Context.Abst context = contexts.poll();
+		if (context != null) {
+			idleContextsCounter.decrementAndGet();
+			POOLED.set(context, 0);
+			return (T)context;
+		}
+		context = (Context.Abst)contextSupplier.get();
+		context.pool = this;
+		return (T)context;
+	}
+
+	//Returns false if the context must be closed: only the first of the concurrent releases of a context
+	//gives it back
+	boolean release(Context.Abst context) {
+		if (!POOLED.compareAndSet(context, 0, 1)) {
+			return true;
+		}
+		if (closed) {
+			context.pool = null;
+			return false;
+		}
+		if (idleContextsCounter.incrementAndGet() > maxSize) {
+			idleContextsCounter.decrementAndGet();
+			context.pool = null;
+			return false;
+		}
+		context.reset();
+		contexts.offer(context);
+		//The pool can have been drained by a close executed while the context was being released
+		if (closed) {
+			closeIdleContexts();
+		}
+		return true;
+	}
+
+	public int getIdleContextsCount() {
+		return idleContextsCounter.get();
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		closeIdleContexts();
+		contextSupplier = null;
+	}
+
+	private void closeIdleContexts() {
+		Context.Abst context;
+		while ((context = contexts.poll()) != null) {
+			idleContextsCounter.decrementAndGet();
+			context.pool = null;
+			context.close();
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+//Resolves the "dependsOn" properties of the functions of an asynchronous group into the indexes of
+//their predecessors and starts each function as soon as all of its predecessors have completed
+class DependencyGraph {
+
+	@FunctionalInterface
+	static interface Scheduler {
+		//The completion of the predecessors is null when the function has no dependencies
+		CompletableFuture<?> schedule(int function, CompletableFuture<?> predecessorsCompletion);
+	}
+
+	//Returns null if no function of the group declares dependencies
+	static int[][] resolve(Config[] functions) {
+		if (functions == null || !hasDependencies(functions)) {
+			return null;
+		}
+		int[][] predecessors = new int[functions.length][];
+		for (int function = 0; function < functions.length; function++) {
+			String[] dependsOn = functions[function].getDependsOn();
+			predecessors[function] = new int[dependsOn != null ? dependsOn.length : 0];
+			for (int i = 0; i < predecessors[function].length; i++) {
+				predecessors[function][i] = indexOf(functions, dependsOn[i]);
+			}
+		}
+		return predecessors;
+	}
+
+	//Computes the predecessors of the functions of a sequential group from the context keys that they read
+	//and write ({reads, writes} for each function): each function depends on the previous functions with
+	//which it conflicts and the functions whose keys are not declared conflict with all the others.
+	//Returns null if no function can be executed concurrently with the previous one
+	static int[][] resolve(String[][][] contextAccesses) {
+		int[][] predecessors = new int[contextAccesses.length][];
+		boolean concurrent = false;
+		for (int function = 0; function < contextAccesses.length; function++) {
+			int[] conflictingFunctions = new int[function];
+			int count = 0;
+			for (int previous = 0; previous < function; previous++) {
+				if (conflict(contextAccesses[previous], contextAccesses[function])) {
+					conflictingFunctions[count++] = previous;
+				}
+			}
+			predecessors[function] = Arrays.copyOf(conflictingFunctions, count);
+			concurrent |= function > 0 && (count == 0 || conflictingFunctions[count - 1] != function - 1);
+		}
+		return concurrent ? predecessors : null;
+	}
+
+	static boolean conflict(String[][] contextAccess, String[][] otherContextAccess) {
+		return contextAccess == null || otherContextAccess == null ||
+			intersect(contextAccess[1], otherContextAccess[0]) ||
+			intersect(contextAccess[1], otherContextAccess[1]) ||
+			intersect(contextAccess[0], otherContextAccess[1]);
+	}
+
+	static boolean intersect(String[] keys, String[] otherKeys) {
+		for (String key : keys) {
+			for (String otherKey : otherKeys) {
+				if (key.equals(otherKey)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	static boolean hasDependencies(Config[] functions) {
+		for (Config function : functions) {
+			if (function.getDependsOn() != null && function.getDependsOn().length > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static int indexOf(Config[] functions, String name) {
+		for (int function = 0; function < functions.length; function++) {
+			if (name != null && name.equals(functions[function].getName())) {
+				return function;
+			}
+		}
+		return -1;
+	}
+
+	//Returns the names of the functions that form a cycle or null if the dependencies are acyclic
+	static List<String> findCycle(Config[] functions, int[][] predecessors) {
+		byte[] states = new byte[predecessors.length];
+		List<Integer> path = new ArrayList<>();
+		for (int function = 0; function < predecessors.length; function++) {
+			int cycleStart = visit(function, predecessors, states, path);
+			if (cycleStart >= 0) {
+				List<String> cycle = new ArrayList<>();
+				for (int i = path.indexOf(cycleStart); i < path.size(); i++) {
+					cycle.add(functions[path.get(i)].getName());
+				}
+				return cycle;
+			}
+		}
+		return null;
+	}
+
+	//States: 0 not visited, 1 on the current path, 2 visited. Returns the function that closes a cycle or -1
+	private static int visit(int function, int[][] predecessors, byte[] states, List<Integer> path) {
+		if (states[function] == 1) {
+			return function;
+		} else if (states[function] == 2) {
+			return -1;
+		}
+		states[function] = 1;
+		path.add(function);
+		for (int predecessor : predecessors[function]) {
+			int cycleStart = visit(predecessor, predecessors, states, path);
+			if (cycleStart >= 0) {
+				return cycleStart;
+			}
+		}
+		path.remove(path.size() - 1);
+		states[function] = 2;
+		return -1;
+	}
+
+	static CompletableFuture<Void> execute(int[][] predecessors, Scheduler scheduler) {
+		CompletableFuture<?>[] completions = new CompletableFuture<?>[predecessors.length];
+		for (int function = 0; function < predecessors.length; function++) {
+			schedule(function, predecessors, scheduler, completions);
+		}
+		return CompletableFuture.allOf(completions);
+	}
+
+	private static CompletableFuture<?> schedule(
+		int function,
+		int[][] predecessors,
+		Scheduler scheduler,
+		CompletableFuture<?>[] completions
+	) {
+		if (completions[function] == null) {
+			CompletableFuture<?> predecessorsCompletion = null;
+			if (predecessors[function].length == 1) {
+				predecessorsCompletion = schedule(predecessors[function][0], predecessors, scheduler, completions);
+			} else if (predecessors[function].length > 1) {
+				CompletableFuture<?>[] predecessorsCompletions = new CompletableFuture<?>[predecessors[function].length];
+				for (int i = 0; i < predecessorsCompletions.length; i++) {
+					predecessorsCompletions[i] = schedule(predecessors[function][i], predecessors, scheduler, completions);
+				}
+				predecessorsCompletion = CompletableFuture.allOf(predecessorsCompletions);
+			}
+			completions[function] = scheduler.schedule(function, predecessorsCompletion);
+		}
+		return completions[function];
+	}
+}
@@ -0,0 +1,583 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import static org.burningwave.core.assembler.StaticComponentContainer.Driver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.burningwave.core.Component;
+import org.burningwave.core.ManagedLogger;
+import org.burningwave.core.extension.CommandWrapper;
+import org.burningwave.graph.ControllableContext.Directive;
+import org.burningwave.graph.Functions.ForCollection.AlgorithmsSupplier;
+
+
+public class ExecutionPlan implements Component, ManagedLogger {
+	static final byte FUNCTION = 0;
+	static final byte FUNCTIONS = 1;
+	static final byte ASYNC_FUNCTIONS = 2;
+	static final byte FUNCTIONS_FOR_COLLECTION = 3;
+	static final byte ASYNC_FUNCTIONS_FOR_COLLECTION = 4;
+	static final byte PIPELINED_FUNCTIONS_FOR_COLLECTION = 5;
+
+	//Node table: the nodes are stored in breadth first order so the children of
+	//each node occupy the contiguous range [firstChildren[node], lastChildren[node])
+	String[] names;
+	byte[] types;
+	int[] firstChildren;
+	int[] lastChildren;
+	CommandWrapper<?, ?, Context, Context>[] commands;
+	String[][] onExceptionTargets;
+	Directive[][] onExceptionDirectives;
+	ExecutorService[] executors;
+	ParallelLoop.Settings[] loopSettings;
+	AlgorithmsSupplier[] algorithmsSuppliers;
+	//Timeouts in milliseconds: zero means no timeout
+	long[] timeouts;
+	//Indexes, relative to the first child, of the predecessors of the children of the asynchronous
+	//groups whose functions declare dependencies
+	int[][][] dependencies;
+	Body body;
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private ExecutionPlan(int nodesCount) {
+		names = new String[nodesCount];
+		types = new byte[nodesCount];
+		firstChildren = new int[nodesCount];
+		lastChildren = new int[nodesCount];
+		commands = new CommandWrapper[nodesCount];
+		onExceptionTargets = new String[nodesCount][];
+		onExceptionDirectives = new Directive[nodesCount][];
+		executors = new ExecutorService[nodesCount];
+		loopSettings = new ParallelLoop.Settings[nodesCount];
+		algorithmsSuppliers = new AlgorithmsSupplier[nodesCount];
+		timeouts = new long[nodesCount];
+		dependencies = new int[nodesCount][][];
+	}
+
+	static ExecutionPlan create(int nodesCount) {
+		return new ExecutionPlan(nodesCount);
+	}
+
+	public String getName() {
+		return names[0];
+	}
+
+	public int getNodesCount() {
+		return types.length;
+	}
+
+	public void executeOn(Object object) {
+		execute(0, (Context)object);
+	}
+
+	public void executeOn(Object object, Duration timeout) {
+		Functions.executeWithTimeout((Context)object, timeout.toMillis(), getName(), context -> execute(0, context));
+	}
+
+	Context execute(int node, Context context) {
+		if (timeouts[node] != 0) {
+			return Functions.executeWithTimeout(context, timeouts[node], names[node], boundedContext -> executeBody(node, boundedContext));
+		}
+		return executeBody(node, context);
+	}
+
+	Context executeBody(int node, Context context) {
+		if (body != null) {
+			try {
+				return body.execute(node, context);
+			} catch (Throwable exc) {
+				return Driver.throwException(exc);
+			}
+		}
+		return interpret(node, context);
+	}
+
+	Context interpret(int node, Context context) {
+		switch (types[node]) {
+			case FUNCTION :
+				return commands[node].executeOn(context);
+			case FUNCTIONS :
+				executeSequentially(node, context);
+				return context;
+			case ASYNC_FUNCTIONS :
+				executeInParallel(node, context);
+				return context;
+			case FUNCTIONS_FOR_COLLECTION :
+				iterate(node, context);
+				return context;
+			case PIPELINED_FUNCTIONS_FOR_COLLECTION :
+				iterateInPipeline(node, context);
+				return context;
+			default :
+				iterateInParallel(node, context);
+				return context;
+		}
+	}
+
+	void executeSequentially(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		for (int child = firstChildren[node]; child < lastChildren[node]; child++) {
+			try {
+				context = execute(child, context);
+			} catch (Throwable exc) {
+				logError("Exception occurred", exc);
+				putOnExceptionDirectives(node, context);
+			}
+			if (stopProcessing(node, context)) {
+				break;
+			}
+		}
+		logDebug("End executing functions group {}", names[node]);
+	}
+
+	boolean stopProcessing(int node, Context context) {
+		if (context.containsOneOf(names[node], Directive.Functions.STOP_PROCESSING)) {
+			context.removeDirective(names[node], Directive.Functions.STOP_PROCESSING);
+			logDebug("Stopping processing functions group {}", Optional.ofNullable(names[node]).orElse(""));
+			return true;
+		}
+		return context.isExpired();
+	}
+
+	void executeInParallel(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		List<CompletableFuture<?>> completableFutureList = new ArrayList<>(lastChildren[node] - firstChildren[node]);
+		//When a function stops the processing the functions that have not yet started are skipped
+		CancellationToken cancellationToken = CancellationToken.create(loopSettings[node].interruptOnStop, context);
+		Executor executor = cancellationToken.bind(executors[node]);
+		if (dependencies[node] != null) {
+			executeInDependencyOrder(node, context, cancellationToken, executor);
+			return;
+		}
+		for (int child = firstChildren[node]; child < lastChildren[node] && !cancellationToken.isCancelled(); child++) {
+			final int function = child;
+			completableFutureList.add(
+				CompletableFuture.runAsync(cancellationToken.wrap(() -> {
+					execute(function, context);
+					if (context.containsOneOf(names[node], Directive.Functions.STOP_PROCESSING)) {
+						cancellationToken.cancel();
+					}
+				}), executor).exceptionally(getExceptionHandlingFunction(node, context))
+			);
+			if (context.containsOneOf(names[node], Directive.Functions.STOP_PROCESSING)) {
+				cancellationToken.cancel();
+			}
+		}
+		cancellationToken.await(CompletableFuture.allOf(
+			completableFutureList.toArray(new CompletableFuture<?>[completableFutureList.size()])
+		));
+		stopProcessing(node, context);
+		logDebug("End executing functions group {}", names[node]);
+	}
+
+	void executeInDependencyOrder(int node, Context context, CancellationToken cancellationToken, Executor executor) {
+		cancellationToken.await(DependencyGraph.execute(dependencies[node], (function, predecessorsCompletion) -> {
+			Runnable runnableFunction = cancellationToken.wrap(() -> {
+				execute(firstChildren[node] + function, context);
+				if (context.containsOneOf(names[node], Directive.Functions.STOP_PROCESSING)) {
+					cancellationToken.cancel();
+				}
+			});
+			return (predecessorsCompletion == null ?
+				CompletableFuture.runAsync(runnableFunction, executor) :
+				predecessorsCompletion.thenRunAsync(runnableFunction, executor)
+			).exceptionally(getExceptionHandlingFunction(node, context));
+		}));
+		stopProcessing(node, context);
+		logDebug("End executing functions group {}", names[node]);
+	}
+
+	void iterate(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		AlgorithmsSupplier algorithmsSupplier = algorithmsSuppliers[node];
+		Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+		LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+		Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+		Iterator<?> iterator = algorithmsSupplier.retrieveIterator(iterableObject);
+		ItemContexts itemContexts = ItemContexts.create(context, 1);
+		for (int idx = 0; iterator.hasNext(); idx++) {
+			executeOnItem(node, itemContexts, iterableObject, loopResult, reduction, iterator.next(), idx);
+			if (context.containsOneOf(names[node], Directive.Functions.ForCollection.STOP_ITERATION)) {
+				context.removeDirective(names[node], Directive.Functions.ForCollection.STOP_ITERATION);
+				logDebug("Stopping iteration of functions group {}", Optional.ofNullable(names[node]).orElse(""));
+				break;
+			}
+			if (context.isExpired()) {
+				break;
+			}
+		}
+		algorithmsSupplier.postLoopOperations(context, loopResult, reduction);
+		logDebug("End executing functions group {}", names[node]);
+	}
+
+	void iterateInParallel(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		AlgorithmsSupplier algorithmsSupplier = algorithmsSuppliers[node];
+		Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+		LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+		Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+		ItemContexts itemContexts = ItemContexts.create(
+			context, Optional.ofNullable(loopSettings[node].parallelism).orElseGet(Runtime.getRuntime()::availableProcessors)
+		);
+		ParallelLoop.iterate(
+			iterableObject,
+			() -> algorithmsSupplier.retrieveIterator(iterableObject),
+			loopSettings[node],
+			CancellationToken.create(loopSettings[node].interruptOnStop, context),
+			executors[node],
+			(item, idx) -> {
+				executeOnItem(node, itemContexts, iterableObject, loopResult, reduction, item, idx);
+				return context.containsOneOf(names[node], Directive.Functions.ForCollection.STOP_ITERATION);
+			},
+			getExceptionHandlingFunction(node, context)
+		);
+		if (context.containsOneOf(names[node], Directive.Functions.ForCollection.STOP_ITERATION)) {
+			context.removeDirective(names[node], Directive.Functions.ForCollection.STOP_ITERATION);
+			logDebug("Stopping iteration of functions group {}", Optional.ofNullable(names[node]).orElse(""));
+		}
+		algorithmsSupplier.postLoopOperations(context, loopResult, reduction);
+		logDebug("End executing functions group {}", names[node]);
+	}
+
+	void iterateInPipeline(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		AlgorithmsSupplier algorithmsSupplier = algorithmsSuppliers[node];
+		Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+		LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+		Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+		ParallelLoop.Settings settings = loopSettings[node];
+		ItemContexts itemContexts = ItemContexts.create(
+			context, Pipeline.getMaxInFlightItemsCount(settings.stageWorkers, settings.queueCapacity, settings.maxInFlight)
+		);
+		Pipeline.iterate(
+			algorithmsSupplier.retrieveIterator(iterableObject),
+			settings.stageWorkers,
+			settings.queueCapacity,
+			settings.maxInFlight,
+			CancellationToken.create(false, context),
+			executors[node],
+			(item, idx) -> algorithmsSupplier.putIteratedObjectInContext(itemContexts, iterableObject, loopResult, item, idx),
+			(stage, itemContext) -> {
+				execute(firstChildren[node] + stage, itemContext);
+				return !stopProcessing(node, itemContext);
+			},
+			itemContext -> {
+				algorithmsSupplier.removeIteratedObjectFromContext(itemContext, loopResult, reduction);
+				itemContexts.release(itemContext);
+			},
+			() -> context.containsOneOf(names[node], Directive.Functions.ForCollection.STOP_ITERATION),
+			getExceptionHandlingFunction(node, context)
+		);
+		if (context.containsOneOf(names[node], Directive.Functions.ForCollection.STOP_ITERATION)) {
+			context.removeDirective(names[node], Directive.Functions.ForCollection.STOP_ITERATION);
+			logDebug("Stopping iteration of functions group {}", Optional.ofNullable(names[node]).orElse(""));
+		}
+		algorithmsSupplier.postLoopOperations(context, loopResult, reduction);
+		logDebug("End executing functions group {}", names[node]);
+	}
+
+	public CompletionStage<Context> executeOnAsync(Object object) {
+		return executeAsync(0, (Context)object);
+	}
+
+	public CompletionStage<Context> executeOnAsync(Object object, Duration timeout) {
+		return Functions.executeWithTimeoutAsync((Context)object, timeout.toMillis(), getName(), context -> executeAsync(0, context));
+	}
+
+	//The groups compose the completion stages of their children instead of waiting for them
+	CompletableFuture<Context> executeAsync(int node, Context context) {
+		if (timeouts[node] != 0) {
+			return Functions.executeWithTimeoutAsync(context, timeouts[node], names[node], boundedContext -> executeBodyAsync(node, boundedContext));
+		}
+		return executeBodyAsync(node, context);
+	}
+
+	CompletableFuture<Context> executeBodyAsync(int node, Context context) {
+		try {
+			switch (types[node]) {
+				case FUNCTION :
+					return CompletableFuture.completedFuture(executeBody(node, context));
+				case FUNCTIONS :
+					return executeSequentiallyAsync(node, context);
+				case ASYNC_FUNCTIONS :
+					return executeInParallelAsync(node, context);
+				case FUNCTIONS_FOR_COLLECTION :
+					return iterateAsync(node, context);
+				case ASYNC_FUNCTIONS_FOR_COLLECTION :
+					return iterateInParallelAsync(node, context);
+				default :
+					return iterateInPipelineAsync(node, context);
+			}
+		} catch (Throwable exc) {
+			return Functions.failedFuture(exc);
+		}
+	}
+
+	CompletableFuture<Context> executeSequentiallyAsync(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		Context[] currentContext = {context};
+		return AsyncLoop.iterate(
+			IntStream.range(firstChildren[node], lastChildren[node]).iterator(),
+			1,
+			(child, idx) -> executeAsync(child, currentContext[0]).thenAccept(result -> currentContext[0] = result),
+			() -> stopProcessing(node, currentContext[0]),
+			getExceptionHandlingFunction(node, context)
+		).thenApply(result -> {
+			logDebug("End executing functions group {}", names[node]);
+			return context;
+		});
+	}
+
+	CompletableFuture<Context> executeInParallelAsync(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		CancellationToken cancellationToken = CancellationToken.create(loopSettings[node].interruptOnStop, context);
+		DependencyGraph.Scheduler scheduler = (function, predecessorsCompletion) ->
+			Optional.ofNullable(predecessorsCompletion).orElseGet(() -> CompletableFuture.completedFuture(null)).thenComposeAsync(result ->
+				cancellationToken.start(() -> executeAsync(firstChildren[node] + function, context)).thenAccept(functionResult -> {
+					if (context.containsOneOf(names[node], Directive.Functions.STOP_PROCESSING)) {
+						cancellationToken.cancel();
+					}
+				}),
+				executors[node]
+			).exceptionally(getExceptionHandlingFunction(node, context));
+		CompletableFuture<Void> completion;
+		if (dependencies[node] != null) {
+			completion = DependencyGraph.execute(dependencies[node], scheduler);
+		} else {
+			CompletableFuture<?>[] completableFutures = new CompletableFuture<?>[lastChildren[node] - firstChildren[node]];
+			for (int function = 0; function < completableFutures.length; function++) {
+				completableFutures[function] = scheduler.schedule(function, null);
+			}
+			completion = CompletableFuture.allOf(completableFutures);
+		}
+		return completion.thenApply(result -> {
+			stopProcessing(node, context);
+			logDebug("End executing functions group {}", names[node]);
+			return context;
+		});
+	}
+
+	CompletableFuture<Context> iterateAsync(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		AlgorithmsSupplier algorithmsSupplier = algorithmsSuppliers[node];
+		Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+		LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+		Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+		ItemContexts itemContexts = ItemContexts.create(context, 1);
+		return AsyncLoop.iterate(
+			algorithmsSupplier.retrieveIterator(iterableObject),
+			1,
+			(item, idx) -> executeOnItemAsync(node, itemContexts, iterableObject, loopResult, reduction, item, idx),
+			() -> context.containsOneOf(names[node], Directive.Functions.ForCollection.STOP_ITERATION) || context.isExpired(),
+			null
+		).thenApply(result -> endIteration(node, context, loopResult, reduction));
+	}
+
+	//Each lane executes an item at a time on the executor: the ranges, the batches and the limit of the items
+	//in flight are the same of the blocking version
+	CompletableFuture<Context> iterateInParallelAsync(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		AlgorithmsSupplier algorithmsSupplier = algorithmsSuppliers[node];
+		Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+		LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+		Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+		ItemContexts itemContexts = ItemContexts.create(
+			context, Optional.ofNullable(loopSettings[node].parallelism).orElseGet(Runtime.getRuntime()::availableProcessors)
+		);
+		return ParallelLoop.iterateAsync(
+			iterableObject,
+			() -> algorithmsSupplier.retrieveIterator(iterableObject),
+			loopSettings[node],
+			CancellationToken.create(loopSettings[node].interruptOnStop, context),
+			executors[node],
+			(item, idx) -> executeOnItemAsync(node, itemContexts, iterableObject, loopResult, reduction, item, idx).thenApply(
+				result -> context.containsOneOf(names[node], Directive.Functions.ForCollection.STOP_ITERATION)
+			),
+			getExceptionHandlingFunction(node, context)
+		).thenApply(result -> endIteration(node, context, loopResult, reduction));
+	}
+
+	//The workers of the stages are tasks that execute an item each and compose the stages of the nested
+	//groups, so no thread waits for the items
+	CompletableFuture<Context> iterateInPipelineAsync(int node, Context context) {
+		logDebug("Start executing functions group {}", names[node]);
+		AlgorithmsSupplier algorithmsSupplier = algorithmsSuppliers[node];
+		Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+		LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+		Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+		ParallelLoop.Settings settings = loopSettings[node];
+		ItemContexts itemContexts = ItemContexts.create(
+			context, Pipeline.getMaxInFlightItemsCount(settings.stageWorkers, settings.queueCapacity, settings.maxInFlight)
+		);
+		return Pipeline.iterateAsync(
+			algorithmsSupplier.retrieveIterator(iterableObject),
+			settings.stageWorkers,
+			settings.queueCapacity,
+			settings.maxInFlight,
+			CancellationToken.create(false, context),
+			executors[node],
+			(item, idx) -> algorithmsSupplier.putIteratedObjectInContext(itemContexts, iterableObject, loopResult, item, idx),
+			(stage, itemContext) -> executeAsync(firstChildren[node] + stage, itemContext).thenApply(result -> !stopProcessing(node, itemContext)),
+			itemContext -> {
+				algorithmsSupplier.removeIteratedObjectFromContext(itemContext, loopResult, reduction);
+				itemContexts.release(itemContext);
+			},
+			() -> context.containsOneOf(names[node], Directive.Functions.ForCollection.STOP_ITERATION),
+			getExceptionHandlingFunction(node, context)
+		).thenApply(result -> endIteration(node, context, loopResult, reduction));
+	}
+
+	Context endIteration(int node, Context context, LoopResult loopResult, Reducer.Reduction reduction) {
+		if (context.containsOneOf(names[node], Directive.Functions.ForCollection.STOP_ITERATION)) {
+			context.removeDirective(names[node], Directive.Functions.ForCollection.STOP_ITERATION);
+			logDebug("Stopping iteration of functions group {}", Optional.ofNullable(names[node]).orElse(""));
+		}
+		algorithmsSuppliers[node].postLoopOperations(context, loopResult, reduction);
+		logDebug("End executing functions group {}", names[node]);
+		return context;
+	}
+
+	CompletableFuture<Context> executeOnItemAsync(int node, ItemContexts itemContexts, Object iterableObject, LoopResult loopResult, Reducer.Reduction reduction, Object item, int idx) {
+		Context clonedContext = algorithmsSuppliers[node].putIteratedObjectInContext(itemContexts, iterableObject, loopResult, item, idx);
+		return AsyncLoop.iterate(
+			IntStream.range(firstChildren[node], lastChildren[node]).iterator(),
+			1,
+			(child, childIndex) -> executeAsync(child, clonedContext),
+			() -> stopProcessing(node, clonedContext),
+			null
+		).thenApply(result -> {
+			algorithmsSuppliers[node].removeIteratedObjectFromContext(clonedContext, loopResult, reduction);
+			itemContexts.release(clonedContext);
+			return itemContexts.getContext();
+		});
+	}
+
+	void executeOnItem(int node, ItemContexts itemContexts, Object iterableObject, LoopResult loopResult, Reducer.Reduction reduction, Object item, int idx) {
+		Context clonedContext = algorithmsSuppliers[node].putIteratedObjectInContext(itemContexts, iterableObject, loopResult, item, idx);
+		for (int child = firstChildren[node]; child < lastChildren[node]; child++) {
+			execute(child, clonedContext);
+			if (stopProcessing(node, clonedContext)) {
+				break;
+			}
+		}
+		algorithmsSuppliers[node].removeIteratedObjectFromContext(clonedContext, loopResult, reduction);
+		itemContexts.release(clonedContext);
+	}
+
+	void putOnExceptionDirectives(int node, Context context) {
+		for (int i = 0; i < onExceptionTargets[node].length; i++) {
+			context.putDirective(onExceptionTargets[node][i], onExceptionDirectives[node][i]);
+		}
+	}
+
+	Function<Throwable, Void> getExceptionHandlingFunction(int node, Context context) {
+		return (exc) -> {
+			logError("Exception occurred", exc.getCause());
+			putOnExceptionDirectives(node, context);
+			return null;
+		};
+	}
+
+	//Superclass of the classes generated by the GraphCompiler when the "compile" property
+	//of the root Config is true: the generated subclass invokes the bound methods directly
+	//and delegates to the interpreter the nodes it does not inline
+	public static abstract class Body {
+		protected final ExecutionPlan executionPlan;
+
+		protected Body(ExecutionPlan executionPlan) {
+			this.executionPlan = executionPlan;
+		}
+
+		public abstract Context execute(int node, Context context) throws Throwable;
+
+		protected Context interpret(int node, Context context) {
+			return executionPlan.interpret(node, context);
+		}
+
+		protected void putOnExceptionDirectives(int node, Context context, Throwable exc) {
+			executionPlan.logError("Exception occurred", exc);
+			executionPlan.putOnExceptionDirectives(node, context);
+		}
+
+		protected boolean stopProcessing(int node, Context context) {
+			return executionPlan.stopProcessing(node, context);
+		}
+
+		//The generated sequential groups log as the interpreted ones
+		protected void startExecuting(int node) {
+			executionPlan.logDebug("Start executing functions group {}", executionPlan.names[node]);
+		}
+
+		protected Context endExecuting(int node, Context context) {
+			executionPlan.logDebug("End executing functions group {}", executionPlan.names[node]);
+			return context;
+		}
+
+		protected Context execute(int node, Context context, long timeout) {
+			return Functions.executeWithTimeout(context, timeout, executionPlan.names[node], boundedContext -> executionPlan.executeBody(node, boundedContext));
+		}
+	}
+
+	@Override
+	public void close() {
+		body = null;
+		for (int node = 0; node < types.length; node++) {
+			if (commands[node] != null) {
+				commands[node].close();
+			}
+			if (executors[node] != null && !executors[node].isShutdown()) {
+				executors[node].shutdownNow().clear();
+			}
+			if (algorithmsSuppliers[node] != null) {
+				algorithmsSuppliers[node].close();
+			}
+		}
+		names = null;
+		commands = null;
+		executors = null;
+		loopSettings = null;
+		algorithmsSuppliers = null;
+		onExceptionTargets = null;
+		onExceptionDirectives = null;
+		timeouts = null;
+		dependencies = null;
+	}
+}
@@ -34,8 +34,11 @@ import static org.burningwave.core.assembler.StaticComponentContainer.Classes;
 import static org.burningwave.core.assembler.StaticComponentContainer.Driver;
 import static org.burningwave.core.assembler.StaticComponentContainer.IterableObjectHelper;
 import static org.burningwave.core.assembler.StaticComponentContainer.Members;
+import static org.burningwave.core.assembler.StaticComponentContainer.Methods;
 import static org.burningwave.core.assembler.StaticComponentContainer.Strings;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -47,8 +50,12 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -62,19 +69,33 @@ import org.burningwave.core.classes.MethodCriteria;
 import org.burningwave.core.classes.PojoSourceGenerator;
 import org.burningwave.core.classes.TypeDeclarationSourceGenerator;
 import org.burningwave.core.classes.UnitSourceGenerator;
+import org.burningwave.core.classes.VariableSourceGenerator;
 import org.burningwave.core.extension.CommandWrapper;
 import org.burningwave.graph.ControllableContext.Directive;
 
 
 public class Factory implements Component {
+	private static final Pattern CONTEXT_KEY_PATTERN = Pattern.compile("(?:context|container)\\[([^\\]\\[.]+)\\]");
+	private static final Pattern PROPERTY_ACCESSOR_PATTERN = Pattern.compile("(?:get|is|set)([A-Z].*)");
+
 	ComponentSupplier componentSupplier;
 	List<Functions> functionList;
 	List<Context> contextList;
+	List<ContextPool> contextPoolList;
+	ContextKey.Registry contextKeys;
+	List<ExecutionPlan> executionPlanList;
+	GraphCompiler graphCompiler;
+	GraphScheduler graphScheduler;
 
 	private Factory(ComponentSupplier componentSupplier) {
 		this.componentSupplier = componentSupplier;
 		functionList = new CopyOnWriteArrayList<>();
 		contextList = new CopyOnWriteArrayList<>();
+		contextPoolList = new CopyOnWriteArrayList<>();
+		contextKeys = ContextKey.Registry.create();
+		executionPlanList = new CopyOnWriteArrayList<>();
+		graphScheduler = GraphScheduler.create();
+		graphCompiler = GraphCompiler.create(this);
 	}
 
 	public static Factory create(ComponentSupplier componentSupplier) {
@@ -89,6 +110,10 @@ public class Factory implements Component {
 		return getOrCreateFrom(ComponentSupplier.getInstance());
 	}
 
+	public GraphScheduler getGraphScheduler() {
+		return graphScheduler;
+	}
+
 	List<Directive> getAllDirectives() {
 		List<Directive> directives = new ArrayList<>();
 		directives.addAll(
@@ -140,33 +165,121 @@ public class Factory implements Component {
 		return instance;
 	}
 
-	Function<Config, Functions> createAsyncFunctionsForCollection() {
+	Function<Config, Functions> createAsyncFunctionsForCollection(Object... beanContainers) {
 		return (config) -> Functions.ForCollection.Async.create(
-			ByFieldOrByMethodPropertyAccessor,
-			ByMethodOrByFieldPropertyAccessor,
-			IterableObjectHelper,
-			config.getIterableObject(),
-			config.getLoopResult(),
-			config.getThreadsNumberAsInteger()
+			createAlgorithmsSupplier(config, beanContainers),
+			retrieveExecutor(config),
+			ParallelLoop.Settings.create(config)
 		);
 	}
 
-	Function<Config, Functions> createAsyncFunctionsForCollectionWithSystemManagedThreads() {
-		return (config) -> Functions.ForCollection.Async.create(
+
+	Function<Config, Functions> createPipelinedFunctionsForCollection(Object... beanContainers) {
+		return (config) -> Functions.ForCollection.Pipelined.create(
+			createAlgorithmsSupplier(config, beanContainers),
+			retrieveExecutor(config),
+			ParallelLoop.Settings.create(config)
+		);
+	}
+
+
+	Function<Config, Functions> createFunctionsForCollection(Object... beanContainers) {
+		return (config) -> Functions.ForCollection.create(
 			ByFieldOrByMethodPropertyAccessor,
 			ByMethodOrByFieldPropertyAccessor,
 			IterableObjectHelper,
-			config.getIterableObject(), config.getLoopResult()
+			createAlgorithmsSupplier(config, beanContainers)
 		);
 	}
 
 
-	Function<Config, Functions> createFunctionsForCollection() {
-		return (config) -> Functions.ForCollection.create(
+	Functions.ForCollection.AlgorithmsSupplier createAlgorithmsSupplier(Config config, Object... beanContainers) {
+		return Functions.ForCollection.AlgorithmsSupplier.create(
 			ByFieldOrByMethodPropertyAccessor,
 			ByMethodOrByFieldPropertyAccessor,
 			IterableObjectHelper,
-			config.getIterableObject(), config.getLoopResult());
+			config.getIterableObject(),
+			config.getLoopResult(),
+			config.getLoopResultType(),
+			createLoopResultSinkSupplier(config, beanContainers),
+			createReducer(config, beanContainers)
+		);
+	}
+
+
+	Reducer createReducer(Config config, Object... beanContainers) {
+		Config.Reduce reduce = config.getReduce();
+		if (reduce == null) {
+			return null;
+		}
+		try {
+			return Reducer.create(
+				createMethodHandle(reduce.getIdentity(), 0, beanContainers),
+				createMethodHandle(reduce.getAccumulator(), 2, beanContainers),
+				createMethodHandle(reduce.getCombiner(), 2, beanContainers),
+				reduce.getResult()
+			);
+		} catch (Throwable exc) {
+			return Driver.throwException(exc);
+		}
+	}
+
+
+	//Binds the referenced method to its instance and adapts it to receive and return objects
+	MethodHandle createMethodHandle(String methodReference, int parametersCount, Object... beanContainers) throws Throwable {
+		String beanClassNameOrContextName = methodReference.split("::")[0];
+		String methodName = methodReference.split("::")[1];
+		Object instance = Objects.requireNonNull(
+			retrieveInstance(beanClassNameOrContextName, beanContainers), "Object " + methodReference + " not found"
+		);
+		Method method = Objects.requireNonNull(
+			Members.findOne(
+				MethodCriteria.byScanUpTo(c ->
+					c.getName().equals(Object.class.getName())
+				).and().name(
+					methodName::equals
+				).and().parameterTypes((parameterTypes) ->
+					parameterTypes.length == parametersCount
+				),
+				instance instanceof Class ? (Class<?>)instance : instance.getClass()
+			), "Could not find method " + methodReference + " with " + parametersCount + " parameters"
+		);
+		MethodHandle methodHandle = Methods.findDirectHandle(method.getDeclaringClass(), methodName, method.getParameterTypes());
+		if (!Modifier.isStatic(method.getModifiers())) {
+			methodHandle = methodHandle.bindTo(instance);
+		}
+		return methodHandle.asType(MethodType.genericMethodType(parametersCount));
+	}
+
+
+	//The built-in sinks are created for each execution of the loop while the sinks
+	//retrieved from the bean containers or instantiated by name are shared
+	@SuppressWarnings("unchecked")
+	Supplier<LoopResultSink> createLoopResultSinkSupplier(Config config, Object... beanContainers) {
+		String sinkName = config.getLoopResultSink();
+		if (Strings.isEmpty(sinkName)) {
+			return null;
+		} else if (LoopResultSink.COLLECTOR.equals(sinkName)) {
+			return LoopResultSink.Collector::create;
+		} else if (LoopResultSink.SPARSE_MAP.equals(sinkName)) {
+			return LoopResultSink.SparseMap::create;
+		}
+		Object instance = null;
+		try {
+			instance = Objects.requireNonNull(retrieveInstance(sinkName, beanContainers), "Object " + sinkName + " not found");
+		} catch (Throwable exc) {
+			Driver.throwException(exc);
+		}
+		LoopResultSink sink = null;
+		if (instance instanceof LoopResultSink) {
+			sink = (LoopResultSink)instance;
+		} else if (instance instanceof Consumer) {
+			sink = LoopResultSink.create((Consumer<Object>)instance);
+		} else {
+			Driver.throwException("Object {} is neither a {} nor a {}", sinkName, LoopResultSink.class.getName(), Consumer.class.getName());
+		}
+		LoopResultSink sharedSink = sink;
+		return () -> sharedSink;
 	}
 
 
@@ -175,16 +288,42 @@ public class Factory implements Component {
 			ByFieldOrByMethodPropertyAccessor,
 			ByMethodOrByFieldPropertyAccessor,
 			IterableObjectHelper,
-			config.getThreadsNumberAsInteger());
+			retrieveExecutor(config),
+			config.isInterruptOnStop(),
+			DependencyGraph.resolve(config.getFunctions()));
 	}
 
 
-	java.util.function.Supplier<Functions> createAsyncFunctionsWithSystemManagedThreads() {
-		return () -> Functions.Async.create(
-			ByFieldOrByMethodPropertyAccessor,
-			ByMethodOrByFieldPropertyAccessor,
-			IterableObjectHelper
-		);
+	ExecutorService retrieveExecutor(Config config) {
+		ExecutorService executor = retrieveExecutor0(config);
+		if (config.isPipeline()) {
+			Pipeline.checkExecutor(executor, config.getStageWorkers(), config.getName());
+		}
+		return executor;
+	}
+
+
+	private ExecutorService retrieveExecutor0(Config config) {
+		if (config.isThreadsNumberAdaptive()) {
+			return graphScheduler.createAdaptive(
+				config.getName(),
+				config.isVirtualThreadsExecutorSelected() ? graphScheduler.getVirtualThreadsExecutor() :
+					Strings.isNotEmpty(config.getExecutor()) ? graphScheduler.getOrCreate(config.getExecutor(), null) :
+						graphScheduler.getDefault(),
+				Strings.isNotEmpty(config.getIterableObject()) ? Runtime.getRuntime().availableProcessors() : config.getFunctions().length
+			);
+		}
+		if (config.isVirtualThreadsExecutorSelected()) {
+			return Optional.ofNullable(config.getThreadsNumberAsInteger()).map(threadsNumber ->
+				graphScheduler.createLimited(graphScheduler.getVirtualThreadsExecutor(), threadsNumber)
+			).orElseGet(graphScheduler::getVirtualThreadsExecutor);
+		}
+		if (Strings.isNotEmpty(config.getExecutor())) {
+			return graphScheduler.getOrCreate(config.getExecutor(), config.getThreadsNumberAsInteger());
+		}
+		return Optional.ofNullable(config.getThreadsNumberAsInteger()).map(threadsNumber ->
+			graphScheduler.createLimited(threadsNumber)
+		).orElseGet(graphScheduler::getDefault);
 	}
 
 
@@ -198,24 +337,84 @@ public class Factory implements Component {
 
 
 	public Context createContext() {
-		Context context = Context.Simple.create();
+		Context context = createSimpleContext();
 		contextList.add(context);
 		return context;
 	}
 
-	@SuppressWarnings("unchecked")
+	Context createSimpleContext() {
+		return ((Context.Abst)Context.Simple.create()).useSlots(contextKeys);
+	}
+
+	//Returns the key registered with the specified name: the contexts created after the registration of the
+	//key store its value in a slot
+	public <T> ContextKey<T> getContextKey(String name, Class<T> type) {
+		return contextKeys.getOrCreate(name, type);
+	}
+
+	//Registers the keys declared in the configuration of a graph and of its functions
+	void registerContextKeys(Config config) {
+		Stream.of(
+			Optional.ofNullable(config.getReads()).orElseGet(() -> new String[0]),
+			Optional.ofNullable(config.getWrites()).orElseGet(() -> new String[0])
+		).flatMap(Stream::of).forEach(key -> contextKeys.getOrCreate(key, Object.class));
+		Stream.of(
+			config.getIterableObject(), config.getLoopResult(),
+			config.getReduce() != null ? config.getReduce().getResult() : null
+		).filter(Objects::nonNull).map(CONTEXT_KEY_PATTERN::matcher).filter(Matcher::matches).forEach(matcher ->
+			contextKeys.getOrCreate(matcher.group(1), Object.class)
+		);
+		if (config.getFunctions() != null) {
+			for (Config function : config.getFunctions()) {
+				registerContextKeys(function);
+			}
+		}
+	}
+
 	public <T> T createContext(Class<?>... interfaces) {
+		return this.<T>createContextSupplier(interfaces).get();
+	}
+
+	//The properties of the interfaces are stored in fields of the generated class: the accessors read and
+	//write the fields and the mutexes are unlocked only if someone is waiting for a change
+	public <T> T createFieldBackedContext(Class<?>... interfaces) {
+		return this.<T>createContextSupplier(true, interfaces).get();
+	}
+
+	public ContextPool createContextPool(Class<?>... interfaces) {
+		return createContextPool(ContextPool.DEFAULT_MAX_SIZE, interfaces);
+	}
+
+	//The contexts are created by the pool only when it has no idle context and they are not tracked by the
+	//factory: they are closed with the pool
+	public ContextPool createContextPool(int maxSize, Class<?>... interfaces) {
+		ContextPool contextPool = ContextPool.create(
+			interfaces.length > 0 ? createContextSupplier(interfaces) : this::createSimpleContext,
+			maxSize
+		);
+		contextPoolList.add(contextPool);
+		return contextPool;
+	}
+
+	<T> Supplier<T> createContextSupplier(Class<?>... interfaces) {
+		return createContextSupplier(false, interfaces);
+	}
+
+	//The class of the context is built once for all the contexts supplied
+	@SuppressWarnings("unchecked")
+	<T> Supplier<T> createContextSupplier(boolean fieldBacked, Class<?>... interfaces) {
 		ClassFactory classFactory = componentSupplier.getClassFactory();
 		String className =
 			Factory.class.getPackage().getName() + "." +
 			Virtual.class.getSimpleName().toLowerCase() + "." +
-			String.join("", Stream.of(interfaces).map(interf -> interf.getSimpleName()).toArray(String[]::new)) + "Impl";
+			String.join("", Stream.of(interfaces).map(interf -> interf.getSimpleName()).toArray(String[]::new)) +
+			(fieldBacked ? "FieldBackedImpl" : "Impl");
 		List<java.lang.Class<?>> classes = new ArrayList<>(Arrays.asList(interfaces));
 		classes.add(Context.Simple.class);
 		Class<?> cls = classFactory.loadOrBuildAndDefine(
 			LoadOrBuildAndDefineConfig.forUnitSourceGenerator(
 				UnitSourceGenerator.create(Classes.retrievePackageName(className)).addClass(
-					PojoSourceGenerator.create().setSetterMethodsBodyBuilder(
+					(fieldBacked ? createFieldBackedContextSourceGenerator(className, interfaces) : PojoSourceGenerator.create().setSetterMethodsBodyBuilder(
 						(pSG, clSG, methodSG, method, options) -> {
 							String paramName = Strings.lowerCaseFirstCharacter(method.getName().replaceFirst("set", ""));
 							methodSG.addBodyCodeLine("put(\"" + paramName + "\", "+ paramName + ");");
@@ -239,12 +438,13 @@ public class Factory implements Component {
 								.addBodyCodeLine(Classes.retrieveSimpleName(className)).addBodyCode("data = new")
 								.addBodyCode(Classes.retrieveSimpleName(className)).addBodyCode("(container, executionDirectiveForGroupName, mutexManager);")
 								.addBodyCodeLine("data.parent = this;")
+								.addBodyCodeLine("copyDeadlineTo(data);")
 								.addBodyCodeLine("return data;").addOuterCodeLine("@Override");
 							clSG.addMethod(createSimmetricCloneMethod);
 						}
 					).setFieldsBuilder(
 						null
-					).generate(
+					)).generate(
 						className,
 						PojoSourceGenerator.BUILDING_METHODS_CREATION_ENABLED | PojoSourceGenerator.USE_OF_FULLY_QUALIFIED_CLASS_NAMES_ENABLED,
 						classes.toArray(new java.lang.Class<?>[classes.size()])
@@ -253,29 +453,173 @@ public class Factory implements Component {
 			).useClassLoader(this.getClass().getClassLoader())
 		).get(className);
 		//Class<?> cls = classFactory.getOrBuild(codeGeneratorForContext.generate(className, Context.Simple.class, interfaces), this.getClass().getClassLoader());
+		Method createMethod = Members.findOne(
+			MethodCriteria.withoutConsideringParentClasses().name(
+				"create"::equals
+			).and().parameterTypes(
+				paramsType -> paramsType.length == 0
+			),
+			cls
+		);
+		//The properties of the interfaces are stored in slots
+		for (java.lang.Class<?> interf : interfaces) {
+			for (Method method : interf.getDeclaredMethods()) {
+				Matcher matcher = PROPERTY_ACCESSOR_PATTERN.matcher(method.getName());
+				if (!fieldBacked && matcher.matches()) {
+					contextKeys.getOrCreate(Strings.lowerCaseFirstCharacter(matcher.group(1)), Object.class);
+				}
+			}
+		}
+		return () -> {
+			try {
+				return (T)((Context.Abst)createMethod.invoke(null)).useSlots(contextKeys);
+			} catch (Exception exc) {
+				return Driver.throwException(exc);
+			}
+		};
+	}
+
+	//Each property is stored in a volatile field of the root context: the symmetric clones share the container
+	//of the root so they read and write its fields
+	private PojoSourceGenerator createFieldBackedContextSourceGenerator(String className, Class<?>... interfaces) {
+		Map<String, java.lang.Class<?>> properties = retrieveProperties(interfaces);
+		String[] propertyNames = properties.keySet().toArray(new String[properties.size()]);
+		String simpleClassName = Classes.retrieveSimpleName(className);
+		String operationClassName = Context.Operation.class.getCanonicalName();
+		return PojoSourceGenerator.create().setSetterMethodsBodyBuilder(
+			(pSG, clSG, methodSG, method, options) -> {
+				String paramName = Strings.lowerCaseFirstCharacter(method.getName().replaceFirst("set", ""));
+				methodSG.addBodyCodeLine("root." + paramName + " = " + paramName + ";")
+				.addBodyCodeLine("if (mutexManager.hasMutexes()) {")
+				.addBodyCodeLine("\tmutexManager.unlockMutexes(" + operationClassName + ".PUT, \"" + paramName + "\", " + paramName + ");")
+				.addBodyCodeLine("}");
+			}
+		).setGetterMethodsBodyBuilder(
+			(pSG, clSG, methodSG, method, options) -> {
+				String prefix = method.getName().startsWith("get")? "get" : "is";
+				String paramName = Strings.lowerCaseFirstCharacter(method.getName().replaceFirst(prefix, ""));
+				methodSG.addBodyCodeLine("return root." + paramName + ";");
+			}
+		).setFieldsBuilder(
+			(pSG, clSG, fields) -> {
+				properties.forEach((name, type) ->
+					clSG.addField(
+						VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(type.getCanonicalName()), name)
+						.addModifier(Modifier.PRIVATE | Modifier.VOLATILE)
+					)
+				);
+				clSG.addField(
+					VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(simpleClassName), "root")
+					.addModifier(Modifier.PRIVATE).setValue("this")
+				);
+				clSG.addField(
+					VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create("String[]"), "PROPERTY_NAMES")
+					.addModifier(Modifier.PRIVATE | Modifier.STATIC | Modifier.FINAL)
+					.setValue("new String[] {" + String.join(", ", Stream.of(propertyNames).map(name -> "\"" + name + "\"").toArray(String[]::new)) + "}")
+				);
+			}
+		).setExtraElementsBuilder(
+			(pSG, clSG, superClass, interfs, options) -> {
+				FunctionSourceGenerator propertyIndexOfMethod = FunctionSourceGenerator.create("propertyIndexOf")
+					.addModifier(Modifier.PROTECTED).setReturnType(TypeDeclarationSourceGenerator.create(int.class))
+					.addParameter(VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(Object.class), "key"))
+					.addBodyCodeLine("if (key instanceof String) {")
+					.addBodyCodeLine("\tswitch ((String)key) {");
+				FunctionSourceGenerator getPropertyMethod = FunctionSourceGenerator.create("getProperty")
+					.addModifier(Modifier.PROTECTED).setReturnType(TypeDeclarationSourceGenerator.create(Object.class))
+					.addParameter(VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(int.class), "index"))
+					.addBodyCodeLine("switch (index) {");
+				FunctionSourceGenerator setPropertyMethod = FunctionSourceGenerator.create("setProperty")
+					.addModifier(Modifier.PROTECTED).setReturnType(TypeDeclarationSourceGenerator.create(void.class))
+					.addParameter(
+						VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(int.class), "index"),
+						VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(Object.class), "value")
+					).addBodyCodeLine("switch (index) {");
+				for (int index = 0; index < propertyNames.length; index++) {
+					String name = propertyNames[index];
+					java.lang.Class<?> type = properties.get(name);
+					propertyIndexOfMethod.addBodyCodeLine("\t\tcase \"" + name + "\": return " + index + ";");
+					getPropertyMethod.addBodyCodeLine("\tcase " + index + ": return root." + name + ";");
+					setPropertyMethod.addBodyCodeLine("\tcase " + index + ": root." + name + " = " + (type.isPrimitive() ?
+						"value != null ? (" + MethodType.methodType(type).wrap().returnType().getName() + ")value : " + defaultValueOf(type) :
+						"(" + type.getCanonicalName() + ")value"
+					) + "; return;");
+				}
+				propertyIndexOfMethod.addBodyCodeLine("\t}").addBodyCodeLine("}").addBodyCodeLine("return -1;").addOuterCodeLine("@Override");
+				getPropertyMethod.addBodyCodeLine("}").addBodyCodeLine("return null;").addOuterCodeLine("@Override");
+				setPropertyMethod.addBodyCodeLine("}").addOuterCodeLine("@Override");
+				FunctionSourceGenerator getPropertyNamesMethod = FunctionSourceGenerator.create("getPropertyNames")
+					.addModifier(Modifier.PROTECTED).setReturnType(TypeDeclarationSourceGenerator.create("String[]"))
+					.addBodyCodeLine("return PROPERTY_NAMES;").addOuterCodeLine("@Override");
+				FunctionSourceGenerator createSimmetricCloneMethod =
+					FunctionSourceGenerator.create("createSymmetricClone")
+					.addModifier(Modifier.PUBLIC).setReturnType(TypeDeclarationSourceGenerator.create(Context.class.getName()))
+					.addBodyCodeLine(simpleClassName).addBodyCode("data = new")
+					.addBodyCode(simpleClassName).addBodyCode("(container, executionDirectiveForGroupName, mutexManager);")
+					.addBodyCodeLine("data.root = root;")
+					.addBodyCodeLine("data.parent = this;")
+					.addBodyCodeLine("copyDeadlineTo(data);")
+					.addBodyCodeLine("return data;").addOuterCodeLine("@Override");
+				clSG.addMethod(
+					propertyIndexOfMethod, getPropertyNamesMethod, getPropertyMethod, setPropertyMethod, createSimmetricCloneMethod
+				);
+			}
+		);
+	}
+
+	//Returns the type of each property of the interfaces that is not implemented by Context.Simple
+	private Map<String, java.lang.Class<?>> retrieveProperties(Class<?>... interfaces) {
+		Map<String, java.lang.Class<?>> properties = new LinkedHashMap<>();
+		for (java.lang.Class<?> interf : interfaces) {
+			for (Method method : interf.getMethods()) {
+				Matcher matcher = PROPERTY_ACCESSOR_PATTERN.matcher(method.getName());
+				if (matcher.matches() && !method.isDefault() && !Modifier.isStatic(method.getModifiers()) &&
+					!isImplementedBySimpleContext(method)) {
+					java.lang.Class<?> type = method.getName().startsWith("set") ?
+						method.getParameterCount() == 1 ? method.getParameterTypes()[0] : null :
+						method.getParameterCount() == 0 ? method.getReturnType() : null;
+					if (type != null && type != void.class) {
+						properties.putIfAbsent(Strings.lowerCaseFirstCharacter(matcher.group(1)), type);
+					}
+				}
+			}
+		}
+		return properties;
+	}
+
+	private boolean isImplementedBySimpleContext(Method method) {
 		try {
-			return (T)Members.findOne(
-				MethodCriteria.withoutConsideringParentClasses().name(
-					"create"::equals
-				).and().parameterTypes(
-					paramsType -> paramsType.length == 0
-				),
-				cls
-			).invoke(null);
-		} catch (Exception exc) {
-			return Driver.throwException(exc);
+			return !Modifier.isAbstract(Context.Simple.class.getMethod(method.getName(), method.getParameterTypes()).getModifiers());
+		} catch (NoSuchMethodException exc) {
+			return false;
 		}
 	}
 
+	private String defaultValueOf(java.lang.Class<?> primitiveType) {
+		return primitiveType == boolean.class ? "false" : primitiveType == char.class ? "'\\0'" : "(" + primitiveType.getName() + ")0";
+	}
 
 	public Functions build(Config config, Object... beanContainers) throws Throwable {
-		Functions functions = buildFunctions(config, beanContainers);
+		registerContextKeys(config);
+		Functions functions = config.isCompile() ?
+			Functions.Compiled.create(graphCompiler.compile(config, beanContainers)) :
+			buildFunctions(config, beanContainers);
+		if (config.getTimeout() != null && !config.isCompile()) {
+			functions = createFunctionsWithTimeout(config, createCommand(functions, functions.getClass(), "executeOn"));
+		}
 		functionList.add(functions);
 		return functions;
 	}
 
+	public ExecutionPlan compile(Config config, Object... beanContainers) throws Throwable {
+		registerContextKeys(config);
+		ExecutionPlan executionPlan = graphCompiler.compile(config, beanContainers);
+		executionPlanList.add(executionPlan);
+		return executionPlan;
+	}
+
 	private Functions buildFunctions(Config config, Object... beanContainers) throws Throwable {
-		Functions functions = createMainFunctions(config);
+		Functions functions = createMainFunctions(config, beanContainers);
 		createChildren(config, functions, beanContainers);
 		return functions;
 	}
@@ -283,93 +627,176 @@ public class Factory implements Component {
 	private void createChildren(Config config, Functions functions, Object... beanContainers) throws Throwable {
 		if (config.getFunctions() != null && config.getFunctions().length > 0) {
 			for (Config innerConfig : config.getFunctions()) {
-				Object instance = null;
-				final AtomicReference<Class<?>> superClassWrapper = new AtomicReference<>(Object.class);
-				final AtomicReference<String> methodNameWrapper = new AtomicReference<>();
+				CommandWrapper<?, ?, Context, Context> command = null;
 				if (Strings.isNotEmpty(innerConfig.getMethod())) {
-					String beanClassNameOrContextName = innerConfig.getMethod().split("::")[0];
-					methodNameWrapper.set(innerConfig.getMethod().split("::")[1]);
-					if ("new".equalsIgnoreCase(beanClassNameOrContextName.split("\\s+")[0])) {
-						beanClassNameOrContextName = beanClassNameOrContextName.split("\\s+")[1];
-						instance = Class.forName(beanClassNameOrContextName).getConstructor().newInstance();
-					} else if (beanClassNameOrContextName.startsWith("#")) {
-						for (Object beanContainer : beanContainers) {
-							instance = retrieveBean(beanContainer, beanClassNameOrContextName);
-							if (instance != null) {
-								break;
-							}
-						}
-					} else {
-						instance = Class.forName(beanClassNameOrContextName);
-					}
-				} else if(Strings.isEmpty(innerConfig.getMethod())) {
-					instance = buildFunctions(innerConfig, beanContainers);
-					superClassWrapper.set(instance.getClass());
-					methodNameWrapper.set(
-						Strings.isNotEmpty(innerConfig.getMethod())?
-							innerConfig.getMethod() : "executeOn");
+					command = createCommand(innerConfig, beanContainers);
+				} else {
+					Functions instance = buildFunctions(innerConfig, beanContainers);
+					command = createCommand(instance, instance.getClass(), "executeOn");
 				}
-				Objects.requireNonNull(instance, "Object " + innerConfig.getMethod() + " not found");
-				final String methodName = methodNameWrapper.get();
-				Class<?> targetClass = (instance != null ? instance instanceof Class? (Class<?>)instance : instance.getClass() : null);
-				Method mth = Optional.ofNullable(
-					Members.findOne(
-						MethodCriteria.byScanUpTo(c ->
-							c.getName().equals(superClassWrapper.get().getName())
-						).and().name(
-							methodName::equals
-						).and().parameterTypes((parameterTypes) ->
-							parameterTypes.length == 1
-						),
-						targetClass
-					)
-				).orElse(
-					Members.findOne(
-						MethodCriteria.byScanUpTo(c ->
-							c.getName().equals(superClassWrapper.get().getName())
-						).and().name(
-							methodName::equals
-						).and().parameterTypes((parameterTypes) ->
-							parameterTypes.length == 0
-						),
-						targetClass
-					)
-				);
+				if (innerConfig.getTimeout() != null) {
+					Functions instance = createFunctionsWithTimeout(innerConfig, command);
+					command = createCommand(instance, instance.getClass(), "executeOn");
+				}
+				functions.add(command);
+			}
+		}
+	}
 
-				Object functionalInterface = componentSupplier.getFunctionalInterfaceFactory().getOrCreate(
-					Objects.requireNonNull(
-						mth, "Could not bind function " + instance.getClass().getName() + "::" + mth.getName() + " to any Wrapper"
-					)
-				);
-				functions.add(
-					CommandWrapper.create(
-						functionalInterface, instance
-					)
-				);
+	Functions createFunctionsWithTimeout(Config config, CommandWrapper<?, ?, Context, Context> command) {
+		Functions functions = Functions.WithTimeout.create(config.getTimeout(), command);
+		functions.setName(config.getName());
+		return functions;
+	}
+
+	CommandWrapper<?, ?, Context, Context> createCommand(Config config, Object... beanContainers) throws Throwable {
+		String beanClassNameOrContextName = config.getMethod().split("::")[0];
+		String methodName = config.getMethod().split("::")[1];
+		Object instance = retrieveInstance(beanClassNameOrContextName, beanContainers);
+		Objects.requireNonNull(instance, "Object " + config.getMethod() + " not found");
+		return createCommand(instance, Object.class, methodName);
+	}
+
+	Object retrieveInstance(String beanClassNameOrContextName, Object... beanContainers) throws Throwable {
+		Object instance = null;
+		if ("new".equalsIgnoreCase(beanClassNameOrContextName.split("\\s+")[0])) {
+			beanClassNameOrContextName = beanClassNameOrContextName.split("\\s+")[1];
+			instance = Class.forName(beanClassNameOrContextName).getConstructor().newInstance();
+		} else if (beanClassNameOrContextName.startsWith("#")) {
+			for (Object beanContainer : beanContainers) {
+				instance = retrieveBean(beanContainer, beanClassNameOrContextName);
+				if (instance != null) {
+					break;
+				}
+			}
+		} else {
+			instance = Class.forName(beanClassNameOrContextName);
+		}
+		return instance;
+	}
+
+	CommandWrapper<?, ?, Context, Context> createCommand(Object instance, Class<?> scanUpTo, String methodName) throws Throwable {
+		Method mth = findMethod(instance, scanUpTo, methodName);
+		Object functionalInterface = componentSupplier.getFunctionalInterfaceFactory().getOrCreate(
+			Objects.requireNonNull(
+				mth, "Could not bind function " + instance.getClass().getName() + "::" + methodName + " to any Wrapper"
+			)
+		);
+		return CommandWrapper.create(
+			functionalInterface, instance
+		);
+	}
+
+	Method findMethod(Object instance, Class<?> scanUpTo, String methodName) {
+		Class<?> targetClass = (instance != null ? instance instanceof Class? (Class<?>)instance : instance.getClass() : null);
+		return Optional.ofNullable(
+			Members.findOne(
+				MethodCriteria.byScanUpTo(c ->
+					c.getName().equals(scanUpTo.getName())
+				).and().name(
+					methodName::equals
+				).and().parameterTypes((parameterTypes) ->
+					parameterTypes.length == 1
+				),
+				targetClass
+			)
+		).orElse(
+			Members.findOne(
+				MethodCriteria.byScanUpTo(c ->
+					c.getName().equals(scanUpTo.getName())
+				).and().name(
+					methodName::equals
+				).and().parameterTypes((parameterTypes) ->
+					parameterTypes.length == 0
+				),
+				targetClass
+			)
+		);
+	}
+
+	//The functions of a sequential group that don't conflict on the context keys that they read and write
+	//are executed concurrently: returns null if the group must be executed sequentially
+	int[][] resolveDependenciesFromContextAccesses(Config config, Object... beanContainers) {
+		if (config.getFunctions() == null || config.getFunctions().length < 2) {
+			return null;
+		}
+		String[][][] contextAccesses = new String[config.getFunctions().length][][];
+		for (int function = 0; function < contextAccesses.length; function++) {
+			contextAccesses[function] = retrieveContextAccess(config.getFunctions()[function], beanContainers);
+		}
+		return DependencyGraph.resolve(contextAccesses);
+	}
+
+	//Returns the context keys read and written by the function ({reads, writes}) declared by the "reads"
+	//and "writes" properties, by the ContextAccess annotation of the method or, for the groups, by all
+	//their functions. Returns null if the keys are not declared or if the function can stop the processing
+	//of the groups, through its onException directives or the STOP_PROCESSING directive, so that it conflicts
+	//with all the other functions
+	String[][] retrieveContextAccess(Config config, Object... beanContainers) {
+		if (config.getOnException() != null && config.getOnException().length > 0) {
+			return null;
+		}
+		if (config.getReads() != null || config.getWrites() != null) {
+			return new String[][] {
+				Optional.ofNullable(config.getReads()).orElseGet(() -> new String[0]),
+				Optional.ofNullable(config.getWrites()).orElseGet(() -> new String[0])
+			};
+		}
+		if (Strings.isNotEmpty(config.getMethod())) {
+			Method method = null;
+			try {
+				String beanClassNameOrContextName = config.getMethod().split("::")[0];
+				//The annotation is read from the class to avoid instantiating the object
+				Object instance = "new".equalsIgnoreCase(beanClassNameOrContextName.split("\\s+")[0]) ?
+					Class.forName(beanClassNameOrContextName.split("\\s+")[1]) :
+					retrieveInstance(beanClassNameOrContextName, beanContainers);
+				method = instance != null ? findMethod(instance, Object.class, config.getMethod().split("::")[1]) : null;
+			} catch (Throwable exc) {
+				return Driver.throwException(exc);
 			}
+			ContextAccess contextAccess = method != null ? method.getAnnotation(ContextAccess.class) : null;
+			return contextAccess != null && !contextAccess.stopsProcessing() ?
+				new String[][] {contextAccess.reads(), contextAccess.writes()} :
+				null;
+		}
+		if (config.getFunctions() == null) {
+			return null;
 		}
+		List<String> reads = new ArrayList<>();
+		List<String> writes = new ArrayList<>();
+		for (Config function : config.getFunctions()) {
+			String[][] contextAccess = retrieveContextAccess(function, beanContainers);
+			if (contextAccess == null) {
+				return null;
+			}
+			reads.addAll(Arrays.asList(contextAccess[0]));
+			writes.addAll(Arrays.asList(contextAccess[1]));
+		}
+		return new String[][] {reads.toArray(new String[reads.size()]), writes.toArray(new String[writes.size()])};
 	}
 
-	private Functions createMainFunctions(Config config) {
+	private Functions createMainFunctions(Config config, Object... beanContainers) {
 		Functions functions = null;
 		if (config.isAsync() && Strings.isNotEmpty(config.getIterableObject())) {
-			functions =
-				Optional.ofNullable(config.getThreadsNumberAsInteger()).map((threadsNumber) ->
-					createAsyncFunctionsForCollection().apply(config)
-				).orElseGet(() ->
-					createAsyncFunctionsForCollectionWithSystemManagedThreads().apply(config)
-				);
+			functions = createAsyncFunctionsForCollection(beanContainers).apply(config);
+		} else if (config.isPipeline() && Strings.isNotEmpty(config.getIterableObject())) {
+			functions = createPipelinedFunctionsForCollection(beanContainers).apply(config);
 		} else if (Strings.isNotEmpty(config.getIterableObject())) {
-			functions = createFunctionsForCollection().apply(config);
+			functions = createFunctionsForCollection(beanContainers).apply(config);
 		} else if (config.isAsync()) {
-			functions =
-				Optional.ofNullable(config.getThreadsNumberAsInteger()).map((threadsNumber) ->
-					createAsyncFunctions().apply(config)
-				).orElseGet(() ->
-					createAsyncFunctionsWithSystemManagedThreads().get()
-				);
+			functions = createAsyncFunctions().apply(config);
 		} else {
-			functions = createFunctions().get();
+			int[][] dependencies = resolveDependenciesFromContextAccesses(config, beanContainers);
+			functions = dependencies != null ?
+				Functions.Async.create(
+					ByFieldOrByMethodPropertyAccessor,
+					ByMethodOrByFieldPropertyAccessor,
+					IterableObjectHelper,
+					retrieveExecutor(config),
+					false,
+					dependencies
+				) :
+				createFunctions().get();
 		}
 		functions.setName(config.getName());
 		functions.setOnException(getDirectives(config.getOnException()));
@@ -383,6 +810,20 @@ public class Factory implements Component {
 		}
 	}
 
+	public void close(ExecutionPlan... executionPlans) {
+		for (ExecutionPlan executionPlan : executionPlans) {
+			executionPlan.close();
+			executionPlanList.remove(executionPlan);
+		}
+	}
+
+	public void close(ContextPool... contextPools) {
+		for (ContextPool contextPool : contextPools) {
+			contextPool.close();
+			contextPoolList.remove(contextPool);
+		}
+	}
+
 	public void close(Object... contextes) {
 		for (Object context : contextes) {
 			((Context)context).close();
@@ -399,6 +840,13 @@ public class Factory implements Component {
 			functionList.clear();
 			functionList = null;
 		}
+		if (executionPlanList != null) {
+			for (ExecutionPlan executionPlan : executionPlanList) {
+				close(executionPlan);
+			}
+			executionPlanList.clear();
+			executionPlanList = null;
+		}
 		if (contextList != null) {
 			for (Context context : contextList) {
 				close(context);
@@ -406,5 +854,21 @@ public class Factory implements Component {
 			contextList.clear();
 			contextList = null;
 		}
+		if (contextPoolList != null) {
+			for (ContextPool contextPool : contextPoolList) {
+				close(contextPool);
+			}
+			contextPoolList.clear();
+			contextPoolList = null;
+		}
+		if (graphCompiler != null) {
+			graphCompiler.close();
+			graphCompiler = null;
+		}
+		if (graphScheduler != null) {
+			graphScheduler.close();
+			graphScheduler = null;
+		}
+		contextKeys = null;
 	}
 }
\ No newline at end of file
@@ -31,17 +31,28 @@ package org.burningwave.graph;
 import static org.burningwave.core.assembler.StaticComponentContainer.Driver;
 import static org.burningwave.core.assembler.StaticComponentContainer.ManagedLoggerRepository;
 
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.burningwave.core.Component;
@@ -76,6 +87,120 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 		return ((Context.Abst)context);
 	}
 
+	//Executes the function on a clone of the context bounded by the timeout: the remaining time is
+	//propagated to the nested groups and, when the deadline is reached, the calling thread is interrupted
+	//and a TimeoutException is thrown. The nested tasks still running at the deadline are not waited for
+	static Context executeWithTimeout(Context context, long timeout, String name, Function<Context, Context> function) {
+		Context.Abst boundedContext = castContext(context).createBoundedClone(timeout);
+		Context result;
+		try {
+			result = CancellationToken.create(false, boundedContext).call(() -> function.apply(boundedContext));
+		} catch (Throwable exc) {
+			if (!boundedContext.isExpired()) {
+				throw exc;
+			}
+			result = null;
+		}
+		if (boundedContext.isExpired()) {
+			Driver.throwException(createTimeoutException(name, timeout));
+		}
+		return result == boundedContext ? context : result;
+	}
+
+	static TimeoutException createTimeoutException(String name, long timeout) {
+		return new TimeoutException("Execution of " + Optional.ofNullable(name).orElse("functions group") + " timed out after " + timeout + " ms");
+	}
+
+	public void executeOn(Object object, Duration timeout) {
+		executeWithTimeout((Context)object, timeout.toMillis(), getName(), context -> {
+			executeOn(context);
+			return context;
+		});
+	}
+
+	static CompletableFuture<Context> executeWithTimeoutAsync(
+		Context context,
+		long timeout,
+		String name,
+		Function<Context, CompletableFuture<Context>> function
+	) {
+		Context.Abst boundedContext = castContext(context).createBoundedClone(timeout);
+		CompletableFuture<Context> execution = function.apply(boundedContext);
+		CompletableFuture<Context> completion = new CompletableFuture<>();
+		//At the deadline the returned stage is completed without waiting for the stages still running
+		ScheduledFuture<?> expiration = CancellationToken.schedule(() -> {
+			if (completion.completeExceptionally(createTimeoutException(name, timeout))) {
+				boundedContext.addLateTasks(execution);
+			}
+		}, boundedContext);
+		execution.whenComplete((result, exc) -> {
+			expiration.cancel(false);
+			if (boundedContext.isExpired()) {
+				completion.completeExceptionally(createTimeoutException(name, timeout));
+			} else if (exc != null) {
+				completion.completeExceptionally(exc);
+			} else {
+				completion.complete(result == boundedContext ? context : result);
+			}
+		});
+		return completion;
+	}
+
+	//The groups built by a Factory receive the executors of its scheduler: the ones created directly without an
+	//executor run their tasks on the default executor of the Factory singleton, resolved when they are created
+	static ExecutorService getExecutorOrDefault(ExecutorService executor) {
+		return executor != null ? executor : Factory.getInstance().getGraphScheduler().getDefault();
+	}
+
+	static <T> CompletableFuture<T> failedFuture(Throwable exc) {
+		CompletableFuture<T> completableFuture = new CompletableFuture<>();
+		completableFuture.completeExceptionally(exc);
+		return completableFuture;
+	}
+
+	//Executes the functions without blocking the calling thread nor the threads of the executors while the
+	//nested groups are executed: the returned stage is completed when the execution of the group ends
+	public CompletionStage<Context> executeOnAsync(Object object) {
+		return executeAsync((Context)object);
+	}
+
+	public CompletionStage<Context> executeOnAsync(Object object, Duration timeout) {
+		return executeWithTimeoutAsync((Context)object, timeout.toMillis(), getName(), this::executeAsync);
+	}
+
+	CompletableFuture<Context> executeAsync(Context context) {
+		logDebug("Start executing functions group {}", getName());
+		Context[] currentContext = {context};
+		return AsyncLoop.iterate(
+			elements.iterator(),
+			1,
+			(functionWrapper, idx) -> executeAsync(functionWrapper, currentContext[0]).thenAccept(
+				result -> currentContext[0] = result
+			),
+			() -> currentContext[0].containsOneOf(getName(), Directive.Functions.STOP_PROCESSING) || currentContext[0].isExpired(),
+			getExceptionHandlingFunction(context)
+		).thenApply(result -> {
+			if (currentContext[0].containsOneOf(getName(), Directive.Functions.STOP_PROCESSING)) {
+				currentContext[0].removeDirective(getName(), Directive.Functions.STOP_PROCESSING);
+				logDebug("Stopping processing functions group {}", Optional.ofNullable(getName()).orElse(""));
+			}
+			logDebug("End executing functions group {}", getName());
+			return context;
+		});
+	}
+
+	//The nested groups are executed asynchronously while the methods are invoked by the current thread
+	static CompletableFuture<Context> executeAsync(CommandWrapper<?, ?, Context, Context> functionWrapper, Context context) {
+		if (functionWrapper.getTarget() instanceof Functions) {
+			return ((Functions)functionWrapper.getTarget()).executeAsync(context);
+		}
+		try {
+			return CompletableFuture.completedFuture(functionWrapper.executeOn(context));
+		} catch (Throwable exc) {
+			return failedFuture(exc);
+		}
+	}
+
 
 	public void executeOn(Object object) {
 		Context context = (Context)object;
@@ -92,6 +217,9 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 				ManagedLoggerRepository.logDebug(getClass()::getName, "Stopping processing functions group {}", Optional.ofNullable(getName()).orElse(""));
 				break;
 			}
+			if (context.isExpired()) {
+				break;
+			}
 		}
 		ManagedLoggerRepository.logDebug(getClass()::getName, "End executing functions group {}", getName());
 	}
@@ -111,6 +239,9 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 
 	public static class Async extends Functions {
 		protected ExecutorService executor;
+		boolean interruptOnStop;
+		//Indexes of the predecessors of each function: null if the functions don't declare dependencies
+		int[][] dependencies;
 
 		private Async(
 			FieldAccessor byFieldOrByMethodPropertyAccessor,
@@ -118,7 +249,7 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 			IterableObjectHelper iterableObjectHelper, ExecutorService executor
 		) {
 			super();
-			this.executor = executor;
+			this.executor = getExecutorOrDefault(executor);
 		}
 
 		public static Functions.Async create(
@@ -137,6 +268,19 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 			return new Async(byFieldOrByMethodPropertyAccessor, byMethodOrByFieldPropertyAccessor, iterableObjectHelper, executor);
 		}
 
+		static Functions.Async create(
+				FieldAccessor byFieldOrByMethodPropertyAccessor,
+				FieldAccessor byMethodOrByFieldPropertyAccessor,
+				IterableObjectHelper iterableObjectHelper,
+				ExecutorService executor,
+				boolean interruptOnStop,
+				int[][] dependencies) {
+			Functions.Async functions = create(byFieldOrByMethodPropertyAccessor, byMethodOrByFieldPropertyAccessor, iterableObjectHelper, executor);
+			functions.interruptOnStop = interruptOnStop;
+			functions.dependencies = dependencies;
+			return functions;
+		}
+
 		public static Functions.Async create(
 				FieldAccessor byFieldOrByMethodPropertyAccessor,
 				FieldAccessor byMethodOrByFieldPropertyAccessor,
@@ -149,24 +293,90 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 		public void executeOn(Object object) {
 			Context context = (Context)object;
 			logDebug("Start executing functions group {}", getName());
+			//When a function stops the processing the functions that have not yet started are skipped
+			CancellationToken cancellationToken = CancellationToken.create(interruptOnStop, context);
+			Executor tasksExecutor = cancellationToken.bind(executor);
+			if (dependencies != null) {
+				executeInDependencyOrder(context, cancellationToken, tasksExecutor);
+				return;
+			}
 			List<CompletableFuture<?>> completableFutureList = new CopyOnWriteArrayList<>();
-			elements.stream().filter(functionWrapper -> {
-				Runnable runnableFunction = () -> functionWrapper.executeOn(context);
-				CompletableFuture<?> completableFuture = (executor != null ?
-					CompletableFuture.runAsync(runnableFunction, executor):
-					CompletableFuture.runAsync(runnableFunction)
+			elements.stream().anyMatch(functionWrapper -> {
+				Runnable runnableFunction = cancellationToken.wrap(() -> {
+					functionWrapper.executeOn(context);
+					if (context.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING)) {
+						cancellationToken.cancel();
+					}
+				});
+				CompletableFuture<?> completableFuture = CompletableFuture.runAsync(
+					runnableFunction, tasksExecutor
 				).exceptionally(getExceptionHandlingFunction(context));
 				completableFutureList.add(completableFuture);
 				completableFuture.thenAcceptAsync(obj -> completableFutureList.remove(completableFuture));
-				return context.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING);
-			}).findFirst().ifPresent(functionWrapper -> {
-				context.removeDirective(getName(), Directive.Functions.STOP_PROCESSING);
-				logDebug("Stopping processing functions group {}", Optional.ofNullable(getName()).orElse(""));
+				if (context.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING)) {
+					cancellationToken.cancel();
+				}
+				return cancellationToken.isCancelled();
 			});
-			CompletableFuture.allOf(
+			cancellationToken.await(CompletableFuture.allOf(
 				completableFutureList.stream().toArray(CompletableFuture<?>[]::new)
-			).join();
+			));
 			completableFutureList.clear();
+			endExecution(context);
+		}
+
+		void executeInDependencyOrder(Context context, CancellationToken cancellationToken, Executor tasksExecutor) {
+			List<CommandWrapper<?, ?, Context, Context>> functions = new ArrayList<>(elements);
+			cancellationToken.await(DependencyGraph.execute(dependencies, (function, predecessorsCompletion) -> {
+				Runnable runnableFunction = cancellationToken.wrap(() -> {
+					functions.get(function).executeOn(context);
+					if (context.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING)) {
+						cancellationToken.cancel();
+					}
+				});
+				CompletableFuture<Void> completableFuture = predecessorsCompletion == null ?
+					CompletableFuture.runAsync(runnableFunction, tasksExecutor) :
+					predecessorsCompletion.thenRunAsync(runnableFunction, tasksExecutor);
+				return completableFuture.exceptionally(getExceptionHandlingFunction(context));
+			}));
+			endExecution(context);
+		}
+
+		@Override
+		CompletableFuture<Context> executeAsync(Context context) {
+			logDebug("Start executing functions group {}", getName());
+			CancellationToken cancellationToken = CancellationToken.create(interruptOnStop, context);
+			List<CommandWrapper<?, ?, Context, Context>> functions = new ArrayList<>(elements);
+			DependencyGraph.Scheduler scheduler = (function, predecessorsCompletion) ->
+				Optional.ofNullable(predecessorsCompletion).orElseGet(() -> CompletableFuture.completedFuture(null)).thenComposeAsync(result ->
+					cancellationToken.start(() -> executeAsync(functions.get(function), context)).thenAccept(functionResult -> {
+						if (context.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING)) {
+							cancellationToken.cancel();
+						}
+					}),
+					executor
+				).exceptionally(getExceptionHandlingFunction(context));
+			CompletableFuture<Void> completion;
+			if (dependencies != null) {
+				completion = DependencyGraph.execute(dependencies, scheduler);
+			} else {
+				CompletableFuture<?>[] completableFutures = new CompletableFuture<?>[functions.size()];
+				for (int function = 0; function < completableFutures.length; function++) {
+					completableFutures[function] = scheduler.schedule(function, null);
+				}
+				completion = CompletableFuture.allOf(completableFutures);
+			}
+			return completion.thenApply(result -> {
+				endExecution(context);
+				return context;
+			});
+		}
+
+		void endExecution(Context context) {
+			if (context.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING)) {
+				context.removeDirective(getName(), Directive.Functions.STOP_PROCESSING);
+				logDebug("Stopping processing functions group {}", Optional.ofNullable(getName()).orElse(""));
+			}
 			logDebug("End executing functions group {}", getName());
 		}
 
@@ -176,6 +386,74 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 				executor.shutdownNow().clear();
 				executor = null;
 			}
+			dependencies = null;
+			super.close();
+		}
+	}
+
+	//Wraps a function or a functions group whose "timeout" property is valorized: the exception
+	//raised when the deadline is reached is handled by the onException of the enclosing group
+	public static class WithTimeout extends Functions {
+		protected long timeout;
+		protected CommandWrapper<?, ?, Context, Context> function;
+
+		private WithTimeout(long timeout, CommandWrapper<?, ?, Context, Context> function) {
+			super();
+			this.timeout = timeout;
+			this.function = function;
+			add(function);
+		}
+
+		static Functions.WithTimeout create(long timeout, CommandWrapper<?, ?, Context, Context> function) {
+			return new WithTimeout(timeout, function);
+		}
+
+		@Override
+		public void executeOn(Object object) {
+			executeWithTimeout((Context)object, timeout, getName(), function::executeOn);
+		}
+
+		@Override
+		CompletableFuture<Context> executeAsync(Context context) {
+			return executeWithTimeoutAsync(context, timeout, getName(), boundedContext -> executeAsync(function, boundedContext));
+		}
+
+		@Override
+		public void close() {
+			function = null;
+			super.close();
+		}
+	}
+
+	public static class Compiled extends Functions {
+		protected ExecutionPlan executionPlan;
+
+		private Compiled(ExecutionPlan executionPlan) {
+			super();
+			this.executionPlan = executionPlan;
+			setName(executionPlan.getName());
+		}
+
+		static Functions.Compiled create(ExecutionPlan executionPlan) {
+			return new Compiled(executionPlan);
+		}
+
+		@Override
+		public void executeOn(Object object) {
+			executionPlan.executeOn(object);
+		}
+
+		@Override
+		CompletableFuture<Context> executeAsync(Context context) {
+			return executionPlan.executeAsync(0, context);
+		}
+
+		@Override
+		public void close() {
+			if (executionPlan != null) {
+				executionPlan.close();
+				executionPlan = null;
+			}
 			super.close();
 		}
 	}
@@ -215,36 +493,87 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 		public void executeOn(Object object) {
 			Context context = (Context)object;
 			logDebug("Start executing functions group {}", getName());
-			algorithmsSupplier.preLoopOperationsRetriever.accept(context);
-			AtomicInteger counter = new AtomicInteger(0);
-			algorithmsSupplier.iterableObjectStreamRetriever.apply(context).filter(item -> {
-				final int idx = counter.getAndIncrement();
-				executeOnItem(context, (T) item, idx);
-				return context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION);
-			}).findFirst().ifPresent(functionWrapper -> {
+			Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+			LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+			Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+			Iterator<?> iterator = algorithmsSupplier.retrieveIterator(iterableObject);
+			ItemContexts itemContexts = ItemContexts.create(context, 1);
+			for (int idx = 0; iterator.hasNext(); idx++) {
+				executeOnItem(itemContexts, iterableObject, loopResult, reduction, (T)iterator.next(), idx);
+				if (context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION)) {
+					context.removeDirective(getName(), Directive.Functions.ForCollection.STOP_ITERATION);
+					logDebug("Stopping iteration of functions group {}", Optional.ofNullable(getName()).orElse(""));
+					break;
+				}
+				if (context.isExpired()) {
+					break;
+				}
+			}
+			algorithmsSupplier.postLoopOperations(context, loopResult, reduction);
+			logDebug("End executing functions group {}", getName());
+		}
+
+
+		@Override
+		CompletableFuture<Context> executeAsync(Context context) {
+			logDebug("Start executing functions group {}", getName());
+			Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+			LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+			Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+			ItemContexts itemContexts = ItemContexts.create(context, 1);
+			return AsyncLoop.iterate(
+				algorithmsSupplier.retrieveIterator(iterableObject),
+				1,
+				(item, idx) -> executeOnItemAsync(itemContexts, iterableObject, loopResult, reduction, item, idx),
+				() -> context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION) || context.isExpired(),
+				null
+			).thenApply(result -> endIteration(context, loopResult, reduction));
+		}
+
+		Context endIteration(Context context, LoopResult loopResult, Reducer.Reduction reduction) {
+			if (context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION)) {
 				context.removeDirective(getName(), Directive.Functions.ForCollection.STOP_ITERATION);
 				logDebug("Stopping iteration of functions group {}", Optional.ofNullable(getName()).orElse(""));
-			});
-			algorithmsSupplier.postLoopOperationsRetriever.accept(context);
+			}
+			algorithmsSupplier.postLoopOperations(context, loopResult, reduction);
 			logDebug("End executing functions group {}", getName());
+			return context;
 		}
 
+		CompletableFuture<Context> executeOnItemAsync(ItemContexts itemContexts, Object iterableObject, LoopResult loopResult, Reducer.Reduction reduction, Object item, int idx) {
+			Context clonedContext = algorithmsSupplier.putIteratedObjectInContext(itemContexts, iterableObject, loopResult, item, idx);
+			return AsyncLoop.iterate(
+				elements.iterator(),
+				1,
+				(functionWrapper, functionIndex) -> executeAsync(functionWrapper, clonedContext),
+				() -> clonedContext.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING) || clonedContext.isExpired(),
+				null
+			).thenApply(result -> {
+				if (clonedContext.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING)) {
+					clonedContext.removeDirective(getName(), Directive.Functions.STOP_PROCESSING);
+					logDebug("Stopping processing functions group {}", Optional.ofNullable(getName()).orElse(""));
+				}
+				algorithmsSupplier.removeIteratedObjectFromContext(clonedContext, loopResult, reduction);
+				itemContexts.release(clonedContext);
+				return itemContexts.getContext();
+			});
+		}
 
-		void executeOnItem(Context context, T item, int idx) {
-			//Clone context
-			Context clonedContext = algorithmsSupplier.putIteratedObjectInContextRetriever.apply(new Object[]{context, item, idx});
+		void executeOnItem(ItemContexts itemContexts, Object iterableObject, LoopResult loopResult, Reducer.Reduction reduction, T item, int idx) {
+			//Rebind a clone of the context to the item
+			Context clonedContext = algorithmsSupplier.putIteratedObjectInContext(itemContexts, iterableObject, loopResult, item, idx);
 			elements.stream().filter(functionWrapper -> {
+				if (clonedContext.isExpired()) {
+					return false;
+				}
 				functionWrapper.executeOn(clonedContext);
 				return clonedContext.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING);
 			}).findFirst().ifPresent(functionWrapper -> {
 				clonedContext.removeDirective(getName(), Directive.Functions.STOP_PROCESSING);
 				logDebug("Stopping processing functions group {}", Optional.ofNullable(getName()).orElse(""));
 			});
-			try {
-				clonedContext.close();
-			} catch (Exception exc) {
-				Driver.throwException(exc);
-			}
+			algorithmsSupplier.removeIteratedObjectFromContext(clonedContext, loopResult, reduction);
+			itemContexts.release(clonedContext);
 		}
 
 		@Override
@@ -254,61 +583,132 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 			super.close();
 		}
 
-		private static class AlgorithmsSupplier implements Component {
+		static class AlgorithmsSupplier implements Component {
 			@SuppressWarnings("unused")
 			FieldAccessor byFieldOrByMethodPropertyAccessor;
 			FieldAccessor byMethodOrByFieldPropertyAccessor;
 			IterableObjectHelper iterableObjectHelper;
 			String iterableObjectContextKey;
 			String loopResultContextKey;
+			String loopResultType;
+			Supplier<LoopResultSink> loopResultSinkSupplier;
+			Reducer reducer;
 
-			//preLoopOperations
-			Consumer<Context> preLoopOperationsRetriever = context -> {
-				Optional.ofNullable(loopResultContextKey).ifPresent((oCDk) -> {
-					Object[] resultsContainer =
-						new Object[(int)iterableObjectHelper.getSize(retrieve(context, iterableObjectContextKey))];
-					byMethodOrByFieldPropertyAccessor.set(context, oCDk, resultsContainer);
-				});
-			};
-
-			// retrieveIterableObjectStream
-			Function<Context, Stream<?>> iterableObjectStreamRetriever = context ->
-				iterableObjectHelper.retrieveStream(retrieve(context, iterableObjectContextKey));
-
-			// putIteratedObjectInContext
-			Function<Object[], Context> putIteratedObjectInContextRetriever = (objects) -> {
-				Context context = (Context)objects[0];
-				Context clonedContext = context.createSymmetricClone();
-				Object iterableObject = retrieve(context, iterableObjectContextKey);
-				castContext(clonedContext).setCurrentIterationObjects(
-					iterableObject,
-					Optional.ofNullable(loopResultContextKey).map((oCDk) ->
-						(Object[])retrieve(context, oCDk)
-					).orElse(null),
-					!(iterableObject instanceof Map)? objects[1] : ((Map<?,?>)iterableObject).get(objects[1]),
-					(Integer)objects[2],
-					!(iterableObject instanceof Map)? (Integer)objects[2] : objects[1]
-				);
+			Object retrieveIterableObject(Context context) {
+				return retrieve(context, iterableObjectContextKey);
+			}
+
+			//When the size of the iterable object is known the results container is put in the context before
+			//the loop begins, otherwise the results are collected while the loop proceeds
+			LoopResult preLoopOperations(Context context, Object iterableObject) {
+				if (loopResultSinkSupplier != null) {
+					return LoopResult.Streaming.create(loopResultSinkSupplier.get());
+				} else if (loopResultContextKey == null) {
+					return null;
+				}
+				LoopResult loopResult = LoopResult.create(loopResultType, getSize(iterableObject));
+				if (loopResult instanceof LoopResult.Fixed) {
+					byMethodOrByFieldPropertyAccessor.set(context, loopResultContextKey, ((LoopResult.Fixed)loopResult).getValues());
+				}
+				return loopResult;
+			}
+
+			//Returns -1 for the sources whose size is not known without consuming them
+			long getSize(Object iterableObject) {
+				if (iterableObject instanceof Collection) {
+					return ((Collection<?>)iterableObject).size();
+				} else if (iterableObject instanceof Map) {
+					return ((Map<?, ?>)iterableObject).size();
+				} else if (iterableObject != null && iterableObject.getClass().isArray()) {
+					return Array.getLength(iterableObject);
+				} else if (iterableObject instanceof Spliterator && ((Spliterator<?>)iterableObject).hasCharacteristics(Spliterator.SIZED)) {
+					return ((Spliterator<?>)iterableObject).getExactSizeIfKnown();
+				} else if (iterableObject instanceof Iterator || iterableObject instanceof Stream ||
+					iterableObject instanceof Spliterator || iterableObject instanceof Iterable) {
+					return -1;
+				}
+				return iterableObjectHelper.getSize(iterableObject);
+			}
+
+			//The sources that can be consumed only once are iterated lazily
+			Iterator<?> retrieveIterator(Object iterableObject) {
+				if (iterableObject instanceof Map) {
+					return ((Map<?, ?>)iterableObject).entrySet().iterator();
+				} else if (iterableObject instanceof Iterable) {
+					return ((Iterable<?>)iterableObject).iterator();
+				} else if (iterableObject instanceof Iterator) {
+					return (Iterator<?>)iterableObject;
+				} else if (iterableObject instanceof Stream) {
+					return ((Stream<?>)iterableObject).iterator();
+				} else if (iterableObject instanceof Spliterator) {
+					return Spliterators.iterator((Spliterator<?>)iterableObject);
+				} else if (iterableObject instanceof Object[]) {
+					return Arrays.asList((Object[])iterableObject).iterator();
+				}
+				return iterableObjectHelper.retrieveStream(iterableObject).iterator();
+			}
+
+			Context putIteratedObjectInContext(ItemContexts itemContexts, Object iterableObject, LoopResult loopResult, Object item, int idx) {
+				Context clonedContext = itemContexts.acquire();
+				if (loopResult != null) {
+					loopResult.reserve(idx);
+				}
+				if (iterableObject instanceof Map) {
+					Map.Entry<?, ?> entry = (Map.Entry<?, ?>)item;
+					castContext(clonedContext).setCurrentIterationObjects(iterableObject, loopResult, entry.getValue(), idx, entry.getKey());
+				} else {
+					castContext(clonedContext).setCurrentIterationObjects(iterableObject, loopResult, item, idx, null);
+				}
 				return clonedContext;
-			};
+			}
 
-			// postLoopOperations
-			Consumer<Context> postLoopOperationsRetriever = context -> {
+			Reducer.Reduction startReduction() {
+				return reducer != null ? reducer.start() : null;
+			}
 
-			};
+			//The iterated item is accumulated before the result of the iteration is released
+			void removeIteratedObjectFromContext(Context clonedContext, LoopResult loopResult, Reducer.Reduction reduction) {
+				if (reduction != null) {
+					reduction.accumulate(clonedContext);
+				}
+				if (loopResult != null) {
+					castContext(clonedContext).getCurrentIteratedContainer().end();
+				}
+			}
 
+			//The items still running at the deadline may still be accumulating their results
+			void postLoopOperations(Context context, LoopResult loopResult, Reducer.Reduction reduction) {
+				if (context.isExpired()) {
+					return;
+				}
+				if (reduction != null) {
+					byMethodOrByFieldPropertyAccessor.set(context, reducer.getResultKey(), reduction.complete());
+				}
+				if (loopResult != null) {
+					Object completedLoopResult = loopResult.complete();
+					if (completedLoopResult != null && loopResultContextKey != null) {
+						byMethodOrByFieldPropertyAccessor.set(context, loopResultContextKey, completedLoopResult);
+					}
+				}
+			}
 
 			private AlgorithmsSupplier(
 				FieldAccessor byFieldOrByMethodPropertyAccessor,
 				FieldAccessor byMethodOrByFieldPropertyAccessor,
 				IterableObjectHelper iterableObjectHelper,
 				String iterableObjectContextKey,
-				String loopResultContextKey) {
+				String loopResultContextKey,
+				String loopResultType,
+				Supplier<LoopResultSink> loopResultSinkSupplier,
+				Reducer reducer) {
 				this.byFieldOrByMethodPropertyAccessor=byFieldOrByMethodPropertyAccessor;
 				this.byMethodOrByFieldPropertyAccessor=byMethodOrByFieldPropertyAccessor;
 				this.iterableObjectHelper = iterableObjectHelper;
 				this.iterableObjectContextKey = iterableObjectContextKey;
 				this.loopResultContextKey = loopResultContextKey;
+				this.loopResultType = loopResultType;
+				this.loopResultSinkSupplier = loopResultSinkSupplier;
+				this.reducer = reducer;
 			}
 
 			static AlgorithmsSupplier create(
@@ -317,7 +717,22 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 				IterableObjectHelper iterableObjectHelper,
 				String iterableObjectContextKey,
 				String loopResultContextKey) {
-				return new AlgorithmsSupplier(byFieldOrByMethodPropertyAccessor, byMethodOrByFieldPropertyAccessor, iterableObjectHelper, iterableObjectContextKey, loopResultContextKey);
+				return create(byFieldOrByMethodPropertyAccessor, byMethodOrByFieldPropertyAccessor, iterableObjectHelper, iterableObjectContextKey, loopResultContextKey, null, null, null);
+			}
+
+			static AlgorithmsSupplier create(
+				FieldAccessor byFieldOrByMethodPropertyAccessor,
+				FieldAccessor byMethodOrByFieldPropertyAccessor,
+				IterableObjectHelper iterableObjectHelper,
+				String iterableObjectContextKey,
+				String loopResultContextKey,
+				String loopResultType,
+				Supplier<LoopResultSink> loopResultSinkSupplier,
+				Reducer reducer) {
+				return new AlgorithmsSupplier(
+					byFieldOrByMethodPropertyAccessor, byMethodOrByFieldPropertyAccessor, iterableObjectHelper,
+					iterableObjectContextKey, loopResultContextKey, loopResultType, loopResultSinkSupplier, reducer
+				);
 			}
 
 			Object retrieve(Context context, String propertyPath) {
@@ -331,23 +746,64 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 				this.iterableObjectHelper = null;
 				this.iterableObjectContextKey = null;
 				this.loopResultContextKey = null;
+				this.loopResultType = null;
+				this.loopResultSinkSupplier = null;
+				if (this.reducer != null) {
+					this.reducer.close();
+					this.reducer = null;
+				}
 			}
 		}
 
 		public static class Async<T> extends Functions.ForCollection<T> {
 			protected ExecutorService executor;
+			ParallelLoop.Settings loopSettings;
 
 			private Async(
 					AlgorithmsSupplier algorithmsSupplier,
-					ExecutorService executor) {
+					ExecutorService executor,
+					ParallelLoop.Settings loopSettings) {
 				super(algorithmsSupplier);
-				this.executor = executor;
+				this.executor = getExecutorOrDefault(executor);
+				this.loopSettings = loopSettings;
 			}
 
 			protected static <T> ForCollection.Async<T> create(
 					AlgorithmsSupplier algorithmsSupplier,
 					ExecutorService executor) {
-				return new ForCollection.Async<>(algorithmsSupplier, executor);
+				return new ForCollection.Async<>(algorithmsSupplier, executor, ParallelLoop.Settings.DEFAULT);
+			}
+
+			protected static <T> ForCollection.Async<T> create(
+					AlgorithmsSupplier algorithmsSupplier,
+					ExecutorService executor,
+					Integer parallelism) {
+				return new ForCollection.Async<>(algorithmsSupplier, executor, ParallelLoop.Settings.create(parallelism, null, null));
+			}
+
+			static <T> ForCollection.Async<T> create(
+					AlgorithmsSupplier algorithmsSupplier,
+					ExecutorService executor,
+					ParallelLoop.Settings loopSettings) {
+				return new ForCollection.Async<>(algorithmsSupplier, executor, loopSettings);
+			}
+
+			//The random access sources are split among a number of workers equal to the parallelism
+			public static <T> ForCollection.Async<T> create(
+					FieldAccessor byFieldOrByMethodPropertyAccessor,
+					FieldAccessor byMethodOrByFieldPropertyAccessor,
+					IterableObjectHelper iterableObjectHelper,
+					String iterableObjectContextKey,
+					String loopResultContextKey,
+					ExecutorService executor,
+					Integer parallelism) {
+				return create(
+					AlgorithmsSupplier.create(
+						byFieldOrByMethodPropertyAccessor, byMethodOrByFieldPropertyAccessor, iterableObjectHelper, iterableObjectContextKey, loopResultContextKey
+					),
+					executor,
+					parallelism
+				);
 			}
 
 			public static <T> ForCollection.Async<T> create(
@@ -390,31 +846,161 @@ public class Functions extends Group<CommandWrapper<?, ?, Context, Context>> {
 			public void executeOn(Object object) {
 				Context context = (Context)object;
 				logDebug("Start executing functions group {}", getName());
-				List<CompletableFuture<?>> completableFutureList = new CopyOnWriteArrayList<>();
-				algorithmsSupplier.preLoopOperationsRetriever.accept(context);
-				AtomicInteger counter = new AtomicInteger(0);
-				algorithmsSupplier.iterableObjectStreamRetriever.apply(context).filter(item -> {
-					final int idx = counter.getAndIncrement();
-					Runnable executeOnItemFunction = () -> executeOnItem(context, (T) item, idx);
-					CompletableFuture<?> completableFuture = (executor != null ?
-						CompletableFuture.runAsync(executeOnItemFunction, executor):
-						CompletableFuture.runAsync(executeOnItemFunction)
-					).exceptionally(getExceptionHandlingFunction(context));
-					completableFutureList.add(completableFuture);
-					completableFuture.thenAcceptAsync(function -> completableFutureList.remove(completableFuture));
-					return context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION);
-				}).findFirst().ifPresent(functionWrapper -> {
+				Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+				LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+				Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+				ItemContexts itemContexts = ItemContexts.create(
+					context, Optional.ofNullable(loopSettings.parallelism).orElseGet(Runtime.getRuntime()::availableProcessors)
+				);
+				ParallelLoop.iterate(
+					iterableObject,
+					() -> algorithmsSupplier.retrieveIterator(iterableObject),
+					loopSettings,
+					CancellationToken.create(loopSettings.interruptOnStop, context),
+					executor,
+					(item, idx) -> {
+						executeOnItem(itemContexts, iterableObject, loopResult, reduction, (T)item, idx);
+						return context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION);
+					},
+					getExceptionHandlingFunction(context)
+				);
+				if (context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION)) {
 					context.removeDirective(getName(), Directive.Functions.ForCollection.STOP_ITERATION);
 					logDebug("Stopping iteration of functions group {}", Optional.ofNullable(getName()).orElse(""));
-				});
-				algorithmsSupplier.postLoopOperationsRetriever.accept(context);
-				CompletableFuture.allOf(
-					completableFutureList.stream().toArray(CompletableFuture<?>[]::new)
-				).join();
-				completableFutureList.clear();
+				}
+				algorithmsSupplier.postLoopOperations(context, loopResult, reduction);
 				logDebug("End executing functions group {}", getName());
 			}
 
+			//Each lane executes an item at a time on the executor: the ranges, the batches and the limit of the items
+			//in flight are the same of the blocking version
+			@Override
+			CompletableFuture<Context> executeAsync(Context context) {
+				logDebug("Start executing functions group {}", getName());
+				Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+				LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+				Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+				ItemContexts itemContexts = ItemContexts.create(
+					context, Optional.ofNullable(loopSettings.parallelism).orElseGet(Runtime.getRuntime()::availableProcessors)
+				);
+				return ParallelLoop.iterateAsync(
+					iterableObject,
+					() -> algorithmsSupplier.retrieveIterator(iterableObject),
+					loopSettings,
+					CancellationToken.create(loopSettings.interruptOnStop, context),
+					executor,
+					(item, idx) -> executeOnItemAsync(itemContexts, iterableObject, loopResult, reduction, item, idx).thenApply(
+						result -> context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION)
+					),
+					getExceptionHandlingFunction(context)
+				).thenApply(result -> endIteration(context, loopResult, reduction));
+			}
+
+			@Override
+			public void close() {
+				if (executor != null && !executor.isShutdown()) {
+					executor.shutdownNow().clear();
+					executor = null;
+				}
+				loopSettings = null;
+				super.close();
+			}
+		}
+
+		//Each function of the group is a stage of a pipeline through which the items flow in the order of the iteration
+		public static class Pipelined<T> extends Functions.ForCollection<T> {
+			protected ExecutorService executor;
+			ParallelLoop.Settings settings;
+
+			private Pipelined(
+					AlgorithmsSupplier algorithmsSupplier,
+					ExecutorService executor,
+					ParallelLoop.Settings settings) {
+				super(algorithmsSupplier);
+				this.executor = getExecutorOrDefault(executor);
+				this.settings = settings;
+			}
+
+			static <T> ForCollection.Pipelined<T> create(
+					AlgorithmsSupplier algorithmsSupplier,
+					ExecutorService executor,
+					ParallelLoop.Settings settings) {
+				return new ForCollection.Pipelined<>(algorithmsSupplier, executor, settings);
+			}
+
+			@Override
+			public void executeOn(Object object) {
+				Context context = (Context)object;
+				logDebug("Start executing functions group {}", getName());
+				Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+				LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+				Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+				List<CommandWrapper<?, ?, Context, Context>> stages = new ArrayList<>(elements);
+				ItemContexts itemContexts = ItemContexts.create(
+					context, Pipeline.getMaxInFlightItemsCount(settings.stageWorkers, settings.queueCapacity, settings.maxInFlight)
+				);
+				Pipeline.iterate(
+					algorithmsSupplier.retrieveIterator(iterableObject),
+					settings.stageWorkers,
+					settings.queueCapacity,
+					settings.maxInFlight,
+					CancellationToken.create(false, context),
+					executor,
+					(item, idx) -> algorithmsSupplier.putIteratedObjectInContext(itemContexts, iterableObject, loopResult, item, idx),
+					(stage, itemContext) -> {
+						stages.get(stage).executeOn(itemContext);
+						return continueProcessing(itemContext);
+					},
+					itemContext -> {
+						algorithmsSupplier.removeIteratedObjectFromContext(itemContext, loopResult, reduction);
+						itemContexts.release(itemContext);
+					},
+					() -> context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION),
+					getExceptionHandlingFunction(context)
+				);
+				endIteration(context, loopResult, reduction);
+			}
+
+			//The workers of the stages are tasks that execute an item each and compose the stages of the
+			//nested groups, so no thread waits for the items
+			@Override
+			CompletableFuture<Context> executeAsync(Context context) {
+				logDebug("Start executing functions group {}", getName());
+				Object iterableObject = algorithmsSupplier.retrieveIterableObject(context);
+				LoopResult loopResult = algorithmsSupplier.preLoopOperations(context, iterableObject);
+				Reducer.Reduction reduction = algorithmsSupplier.startReduction();
+				List<CommandWrapper<?, ?, Context, Context>> stages = new ArrayList<>(elements);
+				ItemContexts itemContexts = ItemContexts.create(
+					context, Pipeline.getMaxInFlightItemsCount(settings.stageWorkers, settings.queueCapacity, settings.maxInFlight)
+				);
+				return Pipeline.iterateAsync(
+					algorithmsSupplier.retrieveIterator(iterableObject),
+					settings.stageWorkers,
+					settings.queueCapacity,
+					settings.maxInFlight,
+					CancellationToken.create(false, context),
+					executor,
+					(item, idx) -> algorithmsSupplier.putIteratedObjectInContext(itemContexts, iterableObject, loopResult, item, idx),
+					(stage, itemContext) -> executeAsync(stages.get(stage), itemContext).thenApply(result -> continueProcessing(itemContext)),
+					itemContext -> {
+						algorithmsSupplier.removeIteratedObjectFromContext(itemContext, loopResult, reduction);
+						itemContexts.release(itemContext);
+					},
+					() -> context.containsOneOf(getName(), Directive.Functions.ForCollection.STOP_ITERATION),
+					getExceptionHandlingFunction(context)
+				).thenApply(result -> endIteration(context, loopResult, reduction));
+			}
+
+			//Returns false if the next stages must be skipped for the item
+			boolean continueProcessing(Context itemContext) {
+				if (itemContext.containsOneOf(getName(), Directive.Functions.STOP_PROCESSING)) {
+					itemContext.removeDirective(getName(), Directive.Functions.STOP_PROCESSING);
+					logDebug("Stopping processing functions group {}", Optional.ofNullable(getName()).orElse(""));
+					return false;
+				}
+				return !itemContext.isExpired();
+			}
+
 			@Override
 			public void close() {
 				if (executor != null && !executor.isShutdown()) {
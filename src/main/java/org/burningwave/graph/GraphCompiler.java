@@ -0,0 +1,279 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import static org.burningwave.core.assembler.StaticComponentContainer.Classes;
+import static org.burningwave.core.assembler.StaticComponentContainer.Strings;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.burningwave.core.Component;
+import org.burningwave.core.Virtual;
+import org.burningwave.core.classes.ClassSourceGenerator;
+import org.burningwave.core.classes.FunctionSourceGenerator;
+import org.burningwave.core.classes.LoadOrBuildAndDefineConfig;
+import org.burningwave.core.classes.TypeDeclarationSourceGenerator;
+import org.burningwave.core.classes.UnitSourceGenerator;
+import org.burningwave.core.classes.VariableSourceGenerator;
+import org.burningwave.graph.ControllableContext.Directive;
+
+
+public class GraphCompiler implements Component {
+	private Factory factory;
+
+	private GraphCompiler(Factory factory) {
+		this.factory = factory;
+	}
+
+	public static GraphCompiler create(Factory factory) {
+		return new GraphCompiler(factory);
+	}
+
+	public ExecutionPlan compile(Config config, Object... beanContainers) throws Throwable {
+		ExecutionPlan executionPlan = ExecutionPlan.create(countNodes(config));
+		List<Config> nodes = new ArrayList<>(executionPlan.getNodesCount());
+		nodes.add(config);
+		try {
+			for (int node = 0; node < executionPlan.getNodesCount(); node++) {
+				Config nodeConfig = nodes.get(node);
+				executionPlan.names[node] = nodeConfig.getName();
+				executionPlan.firstChildren[node] = nodes.size();
+				if (nodeConfig.getFunctions() != null) {
+					nodes.addAll(Arrays.asList(nodeConfig.getFunctions()));
+				}
+				executionPlan.lastChildren[node] = nodes.size();
+				compileNode(executionPlan, node, nodeConfig, beanContainers);
+			}
+			if (config.isCompile()) {
+				executionPlan.body = generateBody(executionPlan, nodes);
+			}
+		} catch (Throwable exc) {
+			executionPlan.close();
+			throw exc;
+		}
+		return executionPlan;
+	}
+
+	void compileNode(ExecutionPlan executionPlan, int node, Config config, Object... beanContainers) throws Throwable {
+		Map<String, Directive> directives = factory.getDirectives(config.getOnException());
+		executionPlan.onExceptionTargets[node] = directives.keySet().toArray(new String[directives.size()]);
+		executionPlan.onExceptionDirectives[node] = directives.values().toArray(new Directive[directives.size()]);
+		if (Strings.isNotEmpty(config.getMethod())) {
+			executionPlan.types[node] = ExecutionPlan.FUNCTION;
+			executionPlan.commands[node] = factory.createCommand(config, beanContainers);
+		} else if (Strings.isNotEmpty(config.getIterableObject())) {
+			executionPlan.types[node] = config.isAsync() ?
+				ExecutionPlan.ASYNC_FUNCTIONS_FOR_COLLECTION :
+				config.isPipeline() ?
+					ExecutionPlan.PIPELINED_FUNCTIONS_FOR_COLLECTION :
+					ExecutionPlan.FUNCTIONS_FOR_COLLECTION;
+			executionPlan.algorithmsSuppliers[node] = factory.createAlgorithmsSupplier(config, beanContainers);
+		} else {
+			executionPlan.dependencies[node] = config.isAsync() ?
+				DependencyGraph.resolve(config.getFunctions()) :
+				factory.resolveDependenciesFromContextAccesses(config, beanContainers);
+			executionPlan.types[node] = config.isAsync() || executionPlan.dependencies[node] != null ?
+				ExecutionPlan.ASYNC_FUNCTIONS :
+				ExecutionPlan.FUNCTIONS;
+		}
+		if (config.getTimeout() != null) {
+			executionPlan.timeouts[node] = config.getTimeout();
+		}
+		if (executionPlan.types[node] == ExecutionPlan.ASYNC_FUNCTIONS || config.isAsync() || config.isPipeline()) {
+			executionPlan.executors[node] = factory.retrieveExecutor(config);
+			executionPlan.loopSettings[node] = ParallelLoop.Settings.create(config);
+		}
+	}
+
+	ExecutionPlan.Body generateBody(ExecutionPlan executionPlan, List<Config> nodes) throws Throwable {
+		int nodesCount = executionPlan.getNodesCount();
+		Object[] targets = new Object[nodesCount];
+		String[] invocations = new String[nodesCount];
+		for (int node = 0; node < nodesCount; node++) {
+			if (executionPlan.types[node] == ExecutionPlan.FUNCTION) {
+				Object target = executionPlan.commands[node].getTarget();
+				Method method = factory.findMethod(target, Object.class, nodes.get(node).getMethod().split("::")[1]);
+				invocations[node] = generateInvocation(node, target, method);
+				if (invocations[node] != null && !(target instanceof Class)) {
+					targets[node] = target;
+				}
+			}
+		}
+		String contextClassName = Context.class.getName();
+		StringBuilder code = new StringBuilder();
+		FunctionSourceGenerator constructor = FunctionSourceGenerator.create().addModifier(Modifier.PUBLIC)
+			.addParameter(VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(ExecutionPlan.class), "executionPlan"))
+			.addParameter(VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(Object[].class), "targets"))
+			.addBodyCodeLine("super(executionPlan);");
+		FunctionSourceGenerator dispatcher = FunctionSourceGenerator.create("execute").addModifier(Modifier.PUBLIC)
+			.setReturnType(TypeDeclarationSourceGenerator.create(contextClassName))
+			.addParameter(VariableSourceGenerator.create(int.class, "node"))
+			.addParameter(VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(contextClassName), "context"))
+			.addThrowable(TypeDeclarationSourceGenerator.create(Throwable.class))
+			.addOuterCodeLine("@Override")
+			.addBodyCodeLine("switch (node) {");
+		List<VariableSourceGenerator> fields = new ArrayList<>();
+		List<FunctionSourceGenerator> methods = new ArrayList<>();
+		for (int node = 0; node < nodesCount; node++) {
+			List<String> bodyCodeLines = new ArrayList<>();
+			if (invocations[node] != null) {
+				if (targets[node] != null) {
+					String targetClassName = targets[node].getClass().getCanonicalName();
+					fields.add(
+						VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(targetClassName), "target" + node)
+						.addModifier(Modifier.PRIVATE | Modifier.FINAL)
+					);
+					constructor.addBodyCodeLine("this.target" + node + " = (" + targetClassName + ")targets[" + node + "];");
+					code.append(targetClassName).append(node);
+				}
+				bodyCodeLines.add(invocations[node]);
+			} else if (executionPlan.types[node] == ExecutionPlan.FUNCTIONS) {
+				bodyCodeLines.add("startExecuting(" + node + ");");
+				bodyCodeLines.add(contextClassName + " current = context;");
+				for (int child = executionPlan.firstChildren[node]; child < executionPlan.lastChildren[node]; child++) {
+					bodyCodeLines.add("try {");
+					bodyCodeLines.add("\tcurrent = " + (
+						executionPlan.timeouts[child] != 0 ?
+							"execute(" + child + ", current, " + executionPlan.timeouts[child] + "L);" :
+						invocations[child] != null || executionPlan.types[child] == ExecutionPlan.FUNCTIONS ?
+							"node" + child + "(current);" :
+							"interpret(" + child + ", current);"
+						)
+					);
+					bodyCodeLines.add("} catch (Throwable exc) {");
+					bodyCodeLines.add("\tputOnExceptionDirectives(" + node + ", current, exc);");
+					bodyCodeLines.add("}");
+					if (child < executionPlan.lastChildren[node] - 1) {
+						bodyCodeLines.add("if (stopProcessing(" + node + ", current)) {");
+						bodyCodeLines.add("\treturn endExecuting(" + node + ", context);");
+						bodyCodeLines.add("}");
+					} else {
+						bodyCodeLines.add("stopProcessing(" + node + ", current);");
+					}
+				}
+				bodyCodeLines.add("return endExecuting(" + node + ", context);");
+			} else {
+				continue;
+			}
+			FunctionSourceGenerator method = FunctionSourceGenerator.create("node" + node)
+				.setReturnType(TypeDeclarationSourceGenerator.create(contextClassName))
+				.addParameter(VariableSourceGenerator.create(TypeDeclarationSourceGenerator.create(contextClassName), "context"))
+				.addThrowable(TypeDeclarationSourceGenerator.create(Throwable.class));
+			code.append("node").append(node);
+			for (String bodyCodeLine : bodyCodeLines) {
+				method.addBodyCodeLine(bodyCodeLine);
+				code.append(bodyCodeLine);
+			}
+			methods.add(method);
+			dispatcher.addBodyCodeLine("\tcase " + node + " : return node" + node + "(context);");
+		}
+		dispatcher.addBodyCodeLine("\tdefault : return interpret(node, context);").addBodyCodeLine("}");
+		String className =
+			Factory.class.getPackage().getName() + "." +
+			Virtual.class.getSimpleName().toLowerCase() + "." +
+			Optional.ofNullable(executionPlan.getName()).map(name -> Strings.capitalizeFirstCharacter(name.replaceAll("[^A-Za-z0-9]", ""))).orElse("") +
+			"Graph" + digest(code);
+		ClassSourceGenerator classSourceGenerator = ClassSourceGenerator.create(
+			TypeDeclarationSourceGenerator.create(Classes.retrieveSimpleName(className))
+		).addModifier(Modifier.PUBLIC).expands(ExecutionPlan.Body.class).addConstructor(constructor).addMethod(dispatcher);
+		fields.forEach(classSourceGenerator::addField);
+		methods.forEach(classSourceGenerator::addMethod);
+		Class<?> cls = factory.componentSupplier.getClassFactory().loadOrBuildAndDefine(
+			LoadOrBuildAndDefineConfig.forUnitSourceGenerator(
+				UnitSourceGenerator.create(Classes.retrievePackageName(className)).addClass(classSourceGenerator)
+			).useClassLoader(Factory.class.getClassLoader())
+		).get(className);
+		return (ExecutionPlan.Body)cls.getConstructor(ExecutionPlan.class, Object[].class).newInstance(executionPlan, targets);
+	}
+
+	//The generated class name is derived from the digest of its source, so that only the graphs with the same
+	//body share the class
+	String digest(CharSequence code) throws NoSuchAlgorithmException {
+		StringBuilder digest = new StringBuilder();
+		for (byte value : MessageDigest.getInstance("SHA-256").digest(code.toString().getBytes(StandardCharsets.UTF_8))) {
+			digest.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+		}
+		return digest.toString();
+	}
+
+	//Returns null if the method can't be directly invoked by the generated code:
+	//in this case the node is executed through its CommandWrapper
+	String generateInvocation(int node, Object target, Method method) {
+		if (method == null || !Modifier.isPublic(method.getModifiers()) || !isAccessible(method.getDeclaringClass()) ||
+			Modifier.isStatic(method.getModifiers()) != (target instanceof Class) ||
+			(!(target instanceof Class) && !isAccessible(target.getClass())) ||
+			(method.getReturnType().isPrimitive() && method.getReturnType() != void.class)
+		) {
+			return null;
+		}
+		String arguments = "";
+		if (method.getParameterCount() == 1) {
+			Class<?> parameterType = method.getParameterTypes()[0];
+			if (parameterType.isPrimitive() || !isAccessible(parameterType)) {
+				return null;
+			}
+			arguments = "(" + parameterType.getCanonicalName() + ")context";
+		}
+		String invocation =
+			(target instanceof Class ? method.getDeclaringClass().getCanonicalName() : "target" + node) +
+			"." + method.getName() + "(" + arguments + ")";
+		return method.getReturnType() == void.class ?
+			invocation + "; return context;" :
+			"return (" + Context.class.getName() + ")" + invocation + ";";
+	}
+
+	boolean isAccessible(Class<?> cls) {
+		return Modifier.isPublic(cls.getModifiers()) && cls.getCanonicalName() != null &&
+			(cls.getEnclosingClass() == null || isAccessible(cls.getEnclosingClass()));
+	}
+
+	int countNodes(Config config) {
+		int count = 1;
+		if (config.getFunctions() != null) {
+			for (Config child : config.getFunctions()) {
+				count += countNodes(child);
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void close() {
+		factory = null;
+	}
+}
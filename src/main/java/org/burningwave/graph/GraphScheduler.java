@@ -0,0 +1,548 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.burningwave.core.Component;
+import org.burningwave.core.ManagedLogger;
+
+
+public class GraphScheduler implements Component, ManagedLogger {
+	public static final String DEFAULT_EXECUTOR_NAME = "default";
+	public static final String VIRTUAL_THREADS_EXECUTOR_NAME = "virtual";
+	public static final int DEFAULT_EXECUTOR_THREADS_NUMBER = Math.max(32, Runtime.getRuntime().availableProcessors() * 4);
+	//The executor whose task the current thread is running
+	private static final ThreadLocal<Executor> CURRENT_EXECUTOR = new ThreadLocal<>();
+
+	private Map<String, ExecutorService> executors;
+	private Collection<ExecutorService> ownedExecutors;
+	private Map<String, AdaptiveLimit> adaptiveLimits;
+	private long keepAliveTime;
+	private volatile int defaultExecutorThreadsNumber;
+
+	private GraphScheduler(long keepAliveTime, int defaultExecutorThreadsNumber) {
+		this.keepAliveTime = keepAliveTime;
+		this.defaultExecutorThreadsNumber = defaultExecutorThreadsNumber;
+		executors = new ConcurrentHashMap<>();
+		ownedExecutors = new CopyOnWriteArrayList<>();
+		adaptiveLimits = new ConcurrentHashMap<>();
+	}
+
+	public static GraphScheduler create() {
+		return new GraphScheduler(60000, DEFAULT_EXECUTOR_THREADS_NUMBER);
+	}
+
+	public static GraphScheduler create(long keepAliveTime) {
+		return new GraphScheduler(keepAliveTime, DEFAULT_EXECUTOR_THREADS_NUMBER);
+	}
+
+	public static GraphScheduler create(long keepAliveTime, int defaultExecutorThreadsNumber) {
+		return new GraphScheduler(keepAliveTime, defaultExecutorThreadsNumber);
+	}
+
+	//Registers an executor supplied by the host application: the scheduler never shuts it down nor changes it
+	public GraphScheduler register(String name, ExecutorService executor) {
+		executors.put(name, Shared.create(executor));
+		return this;
+	}
+
+	public ExecutorService get(String name) {
+		return executors.get(name);
+	}
+
+	//The number of threads of a named executor is set by the group that creates it: a different number of
+	//threads requested later is ignored
+	public ExecutorService getOrCreate(String name, Integer threadsNumber) {
+		if (VIRTUAL_THREADS_EXECUTOR_NAME.equals(name)) {
+			return getVirtualThreadsExecutor();
+		}
+		ExecutorService executor = executors.get(name);
+		if (executor != null) {
+			Integer currentThreadsNumber = getThreadsNumber(executor);
+			if (threadsNumber != null && !threadsNumber.equals(currentThreadsNumber)) {
+				logWarn(
+					"Executor \"{}\" already exists with {} threads: the requested number of threads ({}) is ignored",
+					name, currentThreadsNumber != null ? currentThreadsNumber : "an unknown number of", threadsNumber
+				);
+			}
+			return executor;
+		}
+		return executors.computeIfAbsent(name, executorName -> {
+			ExecutorService pool = createPool(
+				executorName,
+				Optional.ofNullable(threadsNumber).orElseGet(Runtime.getRuntime()::availableProcessors)
+			);
+			ownedExecutors.add(pool);
+			return Shared.create(pool);
+		});
+	}
+
+	//Pool used by the asynchronous groups that don't specify an executor: its threads are bounded and the
+	//tasks that exceed them are queued. The threads that wait for nested groups run the queued tasks, so the
+	//pool doesn't starve, and the idle threads are released after the keep alive time
+	public ExecutorService getDefault() {
+		return executors.computeIfAbsent(DEFAULT_EXECUTOR_NAME, executorName -> {
+			ExecutorService executor = createPool(executorName, defaultExecutorThreadsNumber);
+			ownedExecutors.add(executor);
+			return Shared.create(executor);
+		});
+	}
+
+	public int getDefaultExecutorThreadsNumber() {
+		return defaultExecutorThreadsNumber;
+	}
+
+	//Resizes the default pool if it has already been created
+	public GraphScheduler setDefaultExecutorThreadsNumber(int threadsNumber) {
+		if (threadsNumber < 1) {
+			throw new IllegalArgumentException("The number of threads of the default executor must be greater than 0");
+		}
+		synchronized (executors) {
+			defaultExecutorThreadsNumber = threadsNumber;
+			ExecutorService executor = executors.get(DEFAULT_EXECUTOR_NAME);
+			if (executor instanceof Shared && ((Shared)executor).executor instanceof ThreadPoolExecutor) {
+				ThreadPoolExecutor pool = (ThreadPoolExecutor)((Shared)executor).executor;
+				if (threadsNumber > pool.getMaximumPoolSize()) {
+					pool.setMaximumPoolSize(threadsNumber);
+					pool.setCorePoolSize(threadsNumber);
+				} else {
+					pool.setCorePoolSize(threadsNumber);
+					pool.setMaximumPoolSize(threadsNumber);
+				}
+			}
+		}
+		return this;
+	}
+
+	//Executor that starts a virtual thread for each task: the number of threads is not limited so the
+	//blocking calls and the nested groups don't need to be sized. On JVMs that don't support virtual
+	//threads the default pool is used
+	public ExecutorService getVirtualThreadsExecutor() {
+		ExecutorService executor = executors.get(VIRTUAL_THREADS_EXECUTOR_NAME);
+		if (executor != null) {
+			return executor;
+		}
+		synchronized (executors) {
+			if ((executor = executors.get(VIRTUAL_THREADS_EXECUTOR_NAME)) == null) {
+				executor = createVirtualThreadsExecutor();
+				if (executor != null) {
+					ownedExecutors.add(executor);
+					executor = Shared.create(executor);
+				} else {
+					logWarn("Virtual threads are not supported by this JVM: the \"{}\" executor will be used", DEFAULT_EXECUTOR_NAME);
+					executor = getDefault();
+				}
+				executors.put(VIRTUAL_THREADS_EXECUTOR_NAME, executor);
+			}
+		}
+		return executor;
+	}
+
+	//Resolved reflectively because the library is compiled for Java 8
+	ExecutorService createVirtualThreadsExecutor() {
+		try {
+			return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException exc) {
+			return null;
+		} catch (Throwable exc) {
+			logWarn("Could not create virtual threads executor: {}", exc.toString());
+			return null;
+		}
+	}
+
+	public boolean isVirtualThreadsExecutorAvailable() {
+		return getVirtualThreadsExecutor() != getDefault();
+	}
+
+	//Executor owned by the caller that runs at most the specified number of tasks at the same time
+	//on the default pool, so the groups don't need a pool each
+	ExecutorService createLimited(int maxConcurrentTasksNumber) {
+		return createLimited(getDefault(), maxConcurrentTasksNumber);
+	}
+
+	ExecutorService createLimited(ExecutorService executor, int maxConcurrentTasksNumber) {
+		return Limited.create(executor, maxConcurrentTasksNumber);
+	}
+
+	//Executor owned by the caller whose limit of concurrent tasks is adjusted on the latency of the tasks: the
+	//limit of a named group is registered with its name, so that it can be monitored, until the executor is
+	//shut down
+	ExecutorService createAdaptive(String groupName, ExecutorService executor, int initialLimit) {
+		AdaptiveLimit adaptiveLimit = AdaptiveLimit.create(initialLimit);
+		if (groupName == null) {
+			return Limited.create(executor, adaptiveLimit, null);
+		}
+		adaptiveLimits.put(groupName, adaptiveLimit);
+		return Limited.create(executor, adaptiveLimit, () -> {
+			Map<String, AdaptiveLimit> adaptiveLimits = this.adaptiveLimits;
+			if (adaptiveLimits != null) {
+				adaptiveLimits.remove(groupName, adaptiveLimit);
+			}
+		});
+	}
+
+	//Returns the limit of the last built group, not yet closed, with the specified name and "threadsNumber"
+	//set to "adaptive"
+	public AdaptiveLimit getAdaptiveLimit(String groupName) {
+		return adaptiveLimits.get(groupName);
+	}
+
+	ExecutorService createPool(String name, int threadsNumber) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			threadsNumber, threadsNumber, keepAliveTime, TimeUnit.MILLISECONDS,
+			new LinkedBlockingQueue<>(), createThreadFactory(name)
+		);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	ThreadFactory createThreadFactory(String name) {
+		AtomicInteger threadsCounter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "Burningwave Graph - " + name + " [" + threadsCounter.incrementAndGet() + "]");
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	//Runs a task submitted to the executor marking the current thread as a thread of the executor
+	static void run(Executor executor, Runnable task) {
+		Executor previousExecutor = CURRENT_EXECUTOR.get();
+		CURRENT_EXECUTOR.set(executor);
+		try {
+			task.run();
+		} finally {
+			CURRENT_EXECUTOR.set(previousExecutor);
+		}
+	}
+
+	//A waiting thread runs the tasks of an execution only if it is running a task of the same pool, so that
+	//the number of threads of the pool is not exceeded: the pool can't starve only when all its threads are
+	//waiting. The pools whose tasks are never queued don't need to be helped
+	static boolean isHelpable(Executor executor) {
+		Executor currentExecutor = CURRENT_EXECUTOR.get();
+		if (currentExecutor == null) {
+			return false;
+		}
+		Executor pool = getPool(executor);
+		return pool instanceof ThreadPoolExecutor && !(((ThreadPoolExecutor)pool).getQueue() instanceof SynchronousQueue) &&
+			pool == getPool(currentExecutor);
+	}
+
+	private static Executor getPool(Executor executor) {
+		if (executor instanceof Limited) {
+			return getPool(((Limited)executor).executor);
+		} else if (executor instanceof Shared) {
+			return getPool(((Shared)executor).executor);
+		}
+		return executor;
+	}
+
+	//Acquires a slot of the Limited executors wrapped by the executor so that a waiting thread can run one of
+	//their tasks without exceeding their limits: a thread that is running a task of the same executor lends
+	//the slot it holds
+	static boolean tryAcquire(Executor executor) {
+		if (CURRENT_EXECUTOR.get() == executor) {
+			return true;
+		}
+		return tryAcquire0(executor);
+	}
+
+	private static boolean tryAcquire0(Executor executor) {
+		if (executor instanceof Limited) {
+			Limited limited = (Limited)executor;
+			if (!limited.tryAcquire()) {
+				return false;
+			}
+			if (!tryAcquire0(limited.executor)) {
+				limited.release();
+				return false;
+			}
+		} else if (executor instanceof Shared) {
+			return tryAcquire0(((Shared)executor).executor);
+		}
+		return true;
+	}
+
+	static void release(Executor executor) {
+		if (CURRENT_EXECUTOR.get() != executor) {
+			release0(executor);
+		}
+	}
+
+	private static void release0(Executor executor) {
+		if (executor instanceof Limited) {
+			Limited limited = (Limited)executor;
+			release0(limited.executor);
+			limited.release();
+		} else if (executor instanceof Shared) {
+			release0(((Shared)executor).executor);
+		}
+	}
+
+	//Returns null if the number of threads of the executor is unknown
+	static Integer getThreadsNumber(Executor executor) {
+		if (executor instanceof Limited) {
+			Limited limited = (Limited)executor;
+			Integer threadsNumber = getThreadsNumber(limited.executor);
+			return threadsNumber != null ? Math.min(threadsNumber, limited.maxConcurrentTasksNumber) : limited.maxConcurrentTasksNumber;
+		} else if (executor instanceof Shared) {
+			return getThreadsNumber(((Shared)executor).executor);
+		} else if (executor instanceof ThreadPoolExecutor) {
+			return ((ThreadPoolExecutor)executor).getMaximumPoolSize();
+		}
+		return null;
+	}
+
+	@Override
+	public void close() {
+		if (ownedExecutors != null) {
+			for (ExecutorService executor : ownedExecutors) {
+				executor.shutdownNow();
+			}
+			ownedExecutors.clear();
+			ownedExecutors = null;
+		}
+		if (executors != null) {
+			executors.clear();
+			executors = null;
+		}
+		if (adaptiveLimits != null) {
+			adaptiveLimits.clear();
+			adaptiveLimits = null;
+		}
+	}
+
+	//View of a shared executor that the functions groups can't shut down
+	static class Shared extends AbstractExecutorService {
+		private final ExecutorService executor;
+
+		private Shared(ExecutorService executor) {
+			this.executor = executor;
+		}
+
+		static Shared create(ExecutorService executor) {
+			return executor instanceof Shared ? (Shared)executor : new Shared(executor);
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			executor.execute(command);
+		}
+
+		@Override
+		public void shutdown() {
+
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return new ArrayList<>();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return executor.isShutdown();
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return executor.isTerminated();
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+			return executor.awaitTermination(timeout, unit);
+		}
+	}
+
+	static class Limited extends AbstractExecutorService {
+		private final ExecutorService executor;
+		private final AdaptiveLimit adaptiveLimit;
+		private final Runnable shutdownListener;
+		private final Queue<Runnable> tasks;
+		private final AtomicInteger runningTasksCounter;
+		private volatile int maxConcurrentTasksNumber;
+		private volatile boolean shutdown;
+
+		private Limited(ExecutorService executor, int maxConcurrentTasksNumber, AdaptiveLimit adaptiveLimit, Runnable shutdownListener) {
+			this.executor = executor;
+			this.maxConcurrentTasksNumber = maxConcurrentTasksNumber;
+			this.adaptiveLimit = adaptiveLimit;
+			this.shutdownListener = shutdownListener;
+			this.tasks = new ConcurrentLinkedQueue<>();
+			this.runningTasksCounter = new AtomicInteger();
+		}
+
+		static Limited create(ExecutorService executor, int maxConcurrentTasksNumber) {
+			return new Limited(executor, maxConcurrentTasksNumber, null, null);
+		}
+
+		static Limited create(ExecutorService executor, AdaptiveLimit adaptiveLimit, Runnable shutdownListener) {
+			return new Limited(executor, adaptiveLimit.getLimit(), adaptiveLimit, shutdownListener);
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			if (shutdown) {
+				throw new RejectedExecutionException("Executor has been shut down");
+			}
+			tasks.offer(command);
+			launchQueuedTasks();
+		}
+
+		private void launchQueuedTasks() {
+			while (!tasks.isEmpty()) {
+				int runningTasksCount = runningTasksCounter.get();
+				if (runningTasksCount >= maxConcurrentTasksNumber) {
+					return;
+				}
+				if (runningTasksCounter.compareAndSet(runningTasksCount, runningTasksCount + 1)) {
+					Runnable task = tasks.poll();
+					if (task == null) {
+						onTaskEnd();
+						continue;
+					}
+					try {
+						executor.execute(() -> {
+							try {
+								run(task);
+							} finally {
+								release();
+							}
+						});
+					} catch (RejectedExecutionException exc) {
+						onTaskEnd();
+						throw exc;
+					}
+				}
+			}
+		}
+
+		boolean tryAcquire() {
+			int runningTasksCount;
+			while ((runningTasksCount = runningTasksCounter.get()) < maxConcurrentTasksNumber) {
+				if (runningTasksCounter.compareAndSet(runningTasksCount, runningTasksCount + 1)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void release() {
+			onTaskEnd();
+			launchQueuedTasks();
+		}
+
+		private void run(Runnable task) {
+			if (adaptiveLimit == null) {
+				task.run();
+				return;
+			}
+			long startTime = System.nanoTime();
+			try {
+				task.run();
+			} finally {
+				maxConcurrentTasksNumber = adaptiveLimit.record(System.nanoTime() - startTime, runningTasksCounter.get());
+			}
+		}
+
+		private void onTaskEnd() {
+			if (runningTasksCounter.decrementAndGet() == 0 && shutdown) {
+				synchronized (this) {
+					notifyAll();
+				}
+			}
+		}
+
+		@Override
+		public void shutdown() {
+			if (!shutdown) {
+				shutdown = true;
+				if (shutdownListener != null) {
+					shutdownListener.run();
+				}
+			}
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			shutdown();
+			List<Runnable> notExecutedTasks = new ArrayList<>();
+			Runnable task;
+			while ((task = tasks.poll()) != null) {
+				notExecutedTasks.add(task);
+			}
+			return notExecutedTasks;
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return shutdown;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return shutdown && tasks.isEmpty() && runningTasksCounter.get() == 0;
+		}
+
+		@Override
+		public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+			long deadline = System.nanoTime() + unit.toNanos(timeout);
+			while (!isTerminated()) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+//Clones of the context of a loop execution that are rebound to the next item instead of being created and closed
+//for each item: a worker takes a clone when it starts an item and gives it back when the item ends, so the
+//number of clones depends on the number of items executed at the same time and not on the number of items.
+//The clones that can't be kept are simply dropped, since closing a symmetric clone does nothing
+class ItemContexts {
+	private final Context context;
+	private final AtomicReferenceArray<Context> idleClones;
+
+	private ItemContexts(Context context, int maxIdleClonesCount) {
+		this.context = context;
+		this.idleClones = new AtomicReferenceArray<>(Math.max(1, maxIdleClonesCount));
+	}
+
+	static ItemContexts create(Context context, int maxIdleClonesCount) {
+		return new ItemContexts(context, maxIdleClonesCount);
+	}
+
+	Context getContext() {
+		return context;
+	}
+
+	//Each thread starts looking from a different slot to avoid contending the same clone
+	Context acquire() {
+		int length = idleClones.length();
+		int firstSlot = getFirstSlot(length);
+		for (int i = 0; i < length; i++) {
+			int slot = (firstSlot + i) % length;
+			Context clone = idleClones.get(slot);
+			if (clone != null && idleClones.compareAndSet(slot, clone, null)) {
+				return clone;
+			}
+		}
+		return context.createSymmetricClone();
+	}
+
+	void release(Context clone) {
+		int length = idleClones.length();
+		int firstSlot = getFirstSlot(length);
+		for (int i = 0; i < length; i++) {
+			int slot = (firstSlot + i) % length;
+			if (idleClones.get(slot) == null && idleClones.compareAndSet(slot, null, clone)) {
+				return;
+			}
+		}
+		clone.close();
+	}
+
+	private int getFirstSlot(int length) {
+		return length == 1 ? 0 : (int)(Thread.currentThread().getId() % length);
+	}
+}
@@ -32,10 +32,18 @@ public interface IterableObjectSupport {
 
 	public Integer getCurrentIterationIndex();
 
+	public int getCurrentIterationIndexAsInt();
+
 	public <T> T getCurrentIteratedObject();
 
 	public void setCurrentIterationResult(Object obj);
 
+	public void setCurrentIterationResult(int value);
+
+	public void setCurrentIterationResult(long value);
+
+	public void setCurrentIterationResult(double value);
+
 	public <T> T getCurrentIterationResult();
 
 }
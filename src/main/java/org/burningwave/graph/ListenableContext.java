@@ -28,6 +28,7 @@
  */
 package org.burningwave.graph;
 
+import java.util.concurrent.CompletionStage;
 import java.util.function.Predicate;
 
 public interface ListenableContext {
@@ -36,4 +37,11 @@ public interface ListenableContext {
 
 	<V> V waitForRemove(Object key, Predicate<V> predicate, int... timeout) throws InterruptedException;
 
+	//The returned stage is completed, by the thread that puts (or removes) the value, with the value that
+	//satisfies the predicate, when the context is cleared with the current value or, when the timeout expires,
+	//exceptionally with a TimeoutException
+	<V> CompletionStage<V> onPut(Object key, Predicate<V> predicate, int... timeout);
+
+	<V> CompletionStage<V> onRemove(Object key, Predicate<V> predicate, int... timeout);
+
 }
\ No newline at end of file
@@ -0,0 +1,432 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Container of the results of the iterations of a loop
+abstract class LoopResult implements Serializable {
+
+	private static final long serialVersionUID = -3021784512196428125L;
+
+	static final String OBJECT_TYPE = "object";
+	static final String INT_TYPE = "int";
+	static final String LONG_TYPE = "long";
+	static final String DOUBLE_TYPE = "double";
+
+	//The size is negative when it is not known before the loop begins
+	static LoopResult create(String type, long size) {
+		if (INT_TYPE.equals(type)) {
+			return OfInt.create(size);
+		} else if (LONG_TYPE.equals(type)) {
+			return OfLong.create(size);
+		} else if (DOUBLE_TYPE.equals(type)) {
+			return OfDouble.create(size);
+		} else if (size < 0) {
+			return Growable.create();
+		}
+		return Fixed.create((int)size);
+	}
+
+	static boolean isValidType(String type) {
+		return OBJECT_TYPE.equals(type) || INT_TYPE.equals(type) || LONG_TYPE.equals(type) || DOUBLE_TYPE.equals(type);
+	}
+
+	abstract Object get(int index);
+
+	abstract void set(int index, Object value);
+
+	//The containers of objects box the primitive values
+	void setInt(int index, int value) {
+		set(index, value);
+	}
+
+	void setLong(int index, long value) {
+		set(index, value);
+	}
+
+	void setDouble(int index, double value) {
+		set(index, value);
+	}
+
+	//Called before the iteration of the item with the specified index begins
+	void reserve(int index) {
+
+	}
+
+	//Returns false if the results are not stored in this container but are released
+	//as each iteration ends
+	boolean isBuffered() {
+		return true;
+	}
+
+	//Called when the iteration of the item with the specified index ends
+	void release(int index, Object key, Object value) {
+
+	}
+
+	//Returns the object that is put in the context at the end of the loop or null if
+	//the container has already been put in the context before the loop began
+	Object complete() {
+		return null;
+	}
+
+	//Used when the size of the iterable object is known before the loop begins
+	static class Fixed extends LoopResult {
+		private static final long serialVersionUID = 6914025683379215046L;
+
+		private final Object[] values;
+
+		private Fixed(Object[] values) {
+			this.values = values;
+		}
+
+		static Fixed create(int size) {
+			return new Fixed(new Object[size]);
+		}
+
+		Object[] getValues() {
+			return values;
+		}
+
+		@Override
+		Object get(int index) {
+			return values[index];
+		}
+
+		@Override
+		void set(int index, Object value) {
+			values[index] = value;
+		}
+	}
+
+	//Used when the size of the iterable object is not known: the values are stored in chunks that are
+	//allocated while the loop proceeds and at the end of the loop they are copied in an array
+	static class Growable extends LoopResult {
+		private static final long serialVersionUID = -1286475519306734581L;
+		private static final int CHUNK_SIZE_SHIFT = 10;
+		private static final int CHUNK_SIZE = 1 << CHUNK_SIZE_SHIFT;
+		private static final int CHUNK_INDEX_MASK = CHUNK_SIZE - 1;
+
+		private volatile Object[][] chunks;
+		private final AtomicInteger size;
+
+		private Growable() {
+			chunks = new Object[1][CHUNK_SIZE];
+			size = new AtomicInteger();
+		}
+
+		static Growable create() {
+			return new Growable();
+		}
+
+		@Override
+		void reserve(int index) {
+			size.accumulateAndGet(index + 1, Math::max);
+			int chunkIndex = index >>> CHUNK_SIZE_SHIFT;
+			if (chunkIndex >= chunks.length) {
+				grow(chunkIndex);
+			}
+		}
+
+		private synchronized void grow(int chunkIndex) {
+			Object[][] chunks = this.chunks;
+			if (chunkIndex < chunks.length) {
+				return;
+			}
+			Object[][] newChunks = Arrays.copyOf(chunks, Math.max(chunkIndex + 1, chunks.length * 2));
+			for (int i = chunks.length; i < newChunks.length; i++) {
+				newChunks[i] = new Object[CHUNK_SIZE];
+			}
+			this.chunks = newChunks;
+		}
+
+		@Override
+		Object get(int index) {
+			return chunks[index >>> CHUNK_SIZE_SHIFT][index & CHUNK_INDEX_MASK];
+		}
+
+		@Override
+		void set(int index, Object value) {
+			chunks[index >>> CHUNK_SIZE_SHIFT][index & CHUNK_INDEX_MASK] = value;
+		}
+
+		@Override
+		Object complete() {
+			int size = this.size.get();
+			Object[] values = new Object[size];
+			Object[][] chunks = this.chunks;
+			for (int chunkIndex = 0, copied = 0; copied < size; chunkIndex++, copied += CHUNK_SIZE) {
+				System.arraycopy(chunks[chunkIndex], 0, values, copied, Math.min(CHUNK_SIZE, size - copied));
+			}
+			return values;
+		}
+	}
+
+	//Stores the results in a primitive array: when the size of the iterable object is known the array is
+	//allocated once and returned at the end of the loop, otherwise it is built from chunks like in Growable
+	static abstract class Primitive extends LoopResult {
+		private static final long serialVersionUID = -5146297105330315541L;
+		private static final int CHUNK_SIZE_SHIFT = 10;
+
+		private final boolean sized;
+		private final int chunkSizeShift;
+		private final int chunkIndexMask;
+		private volatile Object[] chunks;
+		private final AtomicInteger size;
+
+		Primitive(long size) {
+			sized = size >= 0;
+			//When the size is known all the indexes fall in the first and only chunk
+			chunkSizeShift = sized ? 31 : CHUNK_SIZE_SHIFT;
+			chunkIndexMask = sized ? Integer.MAX_VALUE : (1 << CHUNK_SIZE_SHIFT) - 1;
+			chunks = new Object[] {newArray(sized ? (int)size : 1 << CHUNK_SIZE_SHIFT)};
+			this.size = new AtomicInteger(sized ? (int)size : 0);
+		}
+
+		abstract Object newArray(int length);
+
+		final Object chunk(int index) {
+			return chunks[index >>> chunkSizeShift];
+		}
+
+		final int indexInChunk(int index) {
+			return index & chunkIndexMask;
+		}
+
+		@Override
+		void reserve(int index) {
+			if (sized) {
+				return;
+			}
+			size.accumulateAndGet(index + 1, Math::max);
+			int chunkIndex = index >>> chunkSizeShift;
+			if (chunkIndex >= chunks.length) {
+				grow(chunkIndex);
+			}
+		}
+
+		private synchronized void grow(int chunkIndex) {
+			Object[] chunks = this.chunks;
+			if (chunkIndex < chunks.length) {
+				return;
+			}
+			Object[] newChunks = Arrays.copyOf(chunks, Math.max(chunkIndex + 1, chunks.length * 2));
+			for (int i = chunks.length; i < newChunks.length; i++) {
+				newChunks[i] = newArray(1 << chunkSizeShift);
+			}
+			this.chunks = newChunks;
+		}
+
+		@Override
+		Object complete() {
+			Object[] chunks = this.chunks;
+			if (sized) {
+				return chunks[0];
+			}
+			int size = this.size.get();
+			int chunkSize = 1 << chunkSizeShift;
+			Object values = newArray(size);
+			for (int chunkIndex = 0, copied = 0; copied < size; chunkIndex++, copied += chunkSize) {
+				System.arraycopy(chunks[chunkIndex], 0, values, copied, Math.min(chunkSize, size - copied));
+			}
+			return values;
+		}
+	}
+
+	static class OfInt extends Primitive {
+		private static final long serialVersionUID = 4469163305297651742L;
+
+		private OfInt(long size) {
+			super(size);
+		}
+
+		static OfInt create(long size) {
+			return new OfInt(size);
+		}
+
+		@Override
+		Object newArray(int length) {
+			return new int[length];
+		}
+
+		@Override
+		Object get(int index) {
+			return ((int[])chunk(index))[indexInChunk(index)];
+		}
+
+		@Override
+		void set(int index, Object value) {
+			setInt(index, ((Number)value).intValue());
+		}
+
+		@Override
+		void setInt(int index, int value) {
+			((int[])chunk(index))[indexInChunk(index)] = value;
+		}
+
+		@Override
+		void setLong(int index, long value) {
+			setInt(index, (int)value);
+		}
+
+		@Override
+		void setDouble(int index, double value) {
+			setInt(index, (int)value);
+		}
+	}
+
+	static class OfLong extends Primitive {
+		private static final long serialVersionUID = -2400863311496366474L;
+
+		private OfLong(long size) {
+			super(size);
+		}
+
+		static OfLong create(long size) {
+			return new OfLong(size);
+		}
+
+		@Override
+		Object newArray(int length) {
+			return new long[length];
+		}
+
+		@Override
+		Object get(int index) {
+			return ((long[])chunk(index))[indexInChunk(index)];
+		}
+
+		@Override
+		void set(int index, Object value) {
+			setLong(index, ((Number)value).longValue());
+		}
+
+		@Override
+		void setInt(int index, int value) {
+			setLong(index, value);
+		}
+
+		@Override
+		void setLong(int index, long value) {
+			((long[])chunk(index))[indexInChunk(index)] = value;
+		}
+
+		@Override
+		void setDouble(int index, double value) {
+			setLong(index, (long)value);
+		}
+	}
+
+	static class OfDouble extends Primitive {
+		private static final long serialVersionUID = 6166307870718049339L;
+
+		private OfDouble(long size) {
+			super(size);
+		}
+
+		static OfDouble create(long size) {
+			return new OfDouble(size);
+		}
+
+		@Override
+		Object newArray(int length) {
+			return new double[length];
+		}
+
+		@Override
+		Object get(int index) {
+			return ((double[])chunk(index))[indexInChunk(index)];
+		}
+
+		@Override
+		void set(int index, Object value) {
+			setDouble(index, ((Number)value).doubleValue());
+		}
+
+		@Override
+		void setInt(int index, int value) {
+			setDouble(index, value);
+		}
+
+		@Override
+		void setLong(int index, long value) {
+			setDouble(index, value);
+		}
+
+		@Override
+		void setDouble(int index, double value) {
+			((double[])chunk(index))[indexInChunk(index)] = value;
+		}
+	}
+
+	//Forwards the result of each iteration to a sink as soon as the iteration ends
+	static class Streaming extends LoopResult {
+		private static final long serialVersionUID = 3816225431797164237L;
+
+		private final LoopResultSink sink;
+
+		private Streaming(LoopResultSink sink) {
+			this.sink = sink;
+		}
+
+		static Streaming create(LoopResultSink sink) {
+			return new Streaming(sink);
+		}
+
+		@Override
+		boolean isBuffered() {
+			return false;
+		}
+
+		@Override
+		Object get(int index) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		void set(int index, Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		void release(int index, Object key, Object value) {
+			if (value != null) {
+				sink.accept(index, key, value);
+			}
+		}
+
+		@Override
+		Object complete() {
+			return sink.complete();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+//Receives the result of each iteration of a loop as soon as the iteration ends: it may be called
+//concurrently by the threads of an async loop and the results with null value are not emitted
+@FunctionalInterface
+public interface LoopResultSink {
+
+	public static final String COLLECTOR = "collector";
+	public static final String SPARSE_MAP = "sparseMap";
+
+	public void accept(int index, Object key, Object value);
+
+	//Called at the end of the loop: if it returns a not null value the value is
+	//put in the context with the key specified by the "loopResult.key" property
+	public default Object complete() {
+		return null;
+	}
+
+	public static LoopResultSink create(Consumer<Object> consumer) {
+		return (index, key, value) -> consumer.accept(value);
+	}
+
+	//Collects the not null results in the order in which the iterations end
+	public static class Collector implements LoopResultSink {
+		private final Collection<Object> values;
+
+		private Collector() {
+			values = new ConcurrentLinkedQueue<>();
+		}
+
+		public static Collector create() {
+			return new Collector();
+		}
+
+		@Override
+		public void accept(int index, Object key, Object value) {
+			values.add(value);
+		}
+
+		@Override
+		public Collection<Object> complete() {
+			return values;
+		}
+	}
+
+	//Maps the not null results to the key of the iterated object (the index for lists and arrays)
+	public static class SparseMap implements LoopResultSink {
+		private final Map<Object, Object> values;
+
+		private SparseMap() {
+			values = new ConcurrentHashMap<>();
+		}
+
+		public static SparseMap create() {
+			return new SparseMap();
+		}
+
+		@Override
+		public void accept(int index, Object key, Object value) {
+			values.put(key, value);
+		}
+
+		@Override
+		public Map<Object, Object> complete() {
+			return values;
+		}
+	}
+}
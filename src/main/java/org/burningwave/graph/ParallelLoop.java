@@ -0,0 +1,524 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+//Executes the items of an asynchronous loop: the random access sources are iterated by splitting the range
+//of their indexes among a fixed number of workers, while the other sources are iterated by submitting batches
+//of consecutive items
+class ParallelLoop {
+	private final ItemProcessor itemProcessor;
+	private final Function<Throwable, Void> exceptionHandler;
+	private final BatchSize batchSize;
+	private final CancellationToken cancellationToken;
+
+	private ParallelLoop(
+		ItemProcessor itemProcessor,
+		Function<Throwable, Void> exceptionHandler,
+		BatchSize batchSize,
+		CancellationToken cancellationToken
+	) {
+		this.itemProcessor = itemProcessor;
+		this.exceptionHandler = exceptionHandler;
+		this.batchSize = batchSize;
+		this.cancellationToken = cancellationToken;
+	}
+
+	static boolean isSplittable(Object iterableObject) {
+		return (iterableObject instanceof List && iterableObject instanceof RandomAccess) ||
+			(iterableObject != null && iterableObject.getClass().isArray());
+	}
+
+	static void iterate(
+		Object iterableObject,
+		Supplier<Iterator<?>> iteratorSupplier,
+		Settings settings,
+		CancellationToken cancellationToken,
+		Executor executor,
+		ItemProcessor itemProcessor,
+		Function<Throwable, Void> exceptionHandler
+	) {
+		ParallelLoop loop = new ParallelLoop(itemProcessor, exceptionHandler, settings.batchSize, cancellationToken);
+		if (settings.parallelism != null && isSplittable(iterableObject)) {
+			loop.iterateBySplitting(iterableObject, settings.parallelism, cancellationToken.bind(executor));
+		} else {
+			loop.iterateInBatches(iteratorSupplier.get(), settings.maxInFlight, cancellationToken.bind(executor));
+		}
+	}
+
+	//Asynchronous version of iterate: each lane takes a range of indexes or a batch of items, executes it on the
+	//executor and takes the next one only when the stages of its items are completed, so that no thread waits
+	//for the nested groups. The ranges are split and stolen as in the blocking version, while maxInFlight bounds
+	//the items held by the lanes
+	static CompletableFuture<Void> iterateAsync(
+		Object iterableObject,
+		Supplier<Iterator<?>> iteratorSupplier,
+		Settings settings,
+		CancellationToken cancellationToken,
+		Executor executor,
+		AsyncItemProcessor itemProcessor,
+		Function<Throwable, Void> exceptionHandler
+	) {
+		ParallelLoop loop = new ParallelLoop(null, exceptionHandler, settings.batchSize, cancellationToken);
+		if (settings.parallelism != null && isSplittable(iterableObject)) {
+			return loop.iterateBySplittingAsync(iterableObject, settings.parallelism, executor, itemProcessor);
+		}
+		return loop.iterateInBatchesAsync(
+			iteratorSupplier.get(),
+			Optional.ofNullable(settings.parallelism).orElseGet(Runtime.getRuntime()::availableProcessors),
+			settings.maxInFlight,
+			executor,
+			itemProcessor
+		);
+	}
+
+	//The submitted batches are counted instead of being collected so that the memory used doesn't depend on
+	//the size of the source; if maxInFlight is set the producer blocks when that number of items are pending
+	private void iterateInBatches(Iterator<?> iterator, Integer maxInFlight, Executor executor) {
+		Semaphore inFlightItems = maxInFlight != null ? new Semaphore(maxInFlight) : null;
+		CompletableFuture<Void> completion = new CompletableFuture<>();
+		//The producer holds a unit of the counter until it has submitted all the batches
+		AtomicInteger pendingBatchesCounter = new AtomicInteger(1);
+		Runnable onBatchEnd = () -> {
+			if (pendingBatchesCounter.decrementAndGet() == 0) {
+				completion.complete(null);
+			}
+		};
+		try {
+			int idx = 0;
+			while (!cancellationToken.isCancelled() && iterator.hasNext()) {
+				int maxBatchSize = batchSize != null ? batchSize.get(1) : 1;
+				if (inFlightItems != null) {
+					maxBatchSize = Math.min(maxBatchSize, maxInFlight);
+					if (!cancellationToken.acquire(inFlightItems, maxBatchSize)) {
+						break;
+					}
+				}
+				Object[] items = new Object[maxBatchSize];
+				int itemsCount = 0;
+				while (itemsCount < items.length && iterator.hasNext()) {
+					items[itemsCount++] = iterator.next();
+				}
+				int firstItemIndex = idx;
+				int batchItemsCount = itemsCount;
+				int acquiredPermits = maxBatchSize;
+				pendingBatchesCounter.incrementAndGet();
+				try {
+					executor.execute(() -> {
+						try {
+							cancellationToken.run(() -> process(items, firstItemIndex, batchItemsCount));
+						} finally {
+							if (inFlightItems != null) {
+								inFlightItems.release(acquiredPermits);
+							}
+							onBatchEnd.run();
+						}
+					});
+				} catch (RejectedExecutionException exc) {
+					onBatchEnd.run();
+					throw exc;
+				}
+				idx += itemsCount;
+			}
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			cancellationToken.cancel();
+		} finally {
+			onBatchEnd.run();
+		}
+		cancellationToken.await(completion);
+	}
+
+	private void process(Object[] items, int firstItemIndex, int itemsCount) {
+		long startTime = batchSize != null ? batchSize.startMeasuring() : 0;
+		int processedItemsCount = 0;
+		while (!cancellationToken.isCancelled() && processedItemsCount < itemsCount) {
+			process(items[processedItemsCount], firstItemIndex + processedItemsCount++);
+		}
+		if (batchSize != null) {
+			batchSize.record(processedItemsCount, startTime);
+		}
+	}
+
+	private void iterateBySplitting(Object iterableObject, int parallelism, Executor executor) {
+		int size = getSize(iterableObject);
+		if (size == 0) {
+			return;
+		}
+		IntFunction<Object> itemRetriever = getItemRetriever(iterableObject);
+		int defaultGrainSize = Math.max(1, size / (parallelism * 8));
+		Deque<Spliterator.OfInt> ranges = split(size, parallelism, defaultGrainSize);
+		CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, size)];
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = CompletableFuture.runAsync(
+				cancellationToken.wrap(() -> work(ranges, itemRetriever, defaultGrainSize)), executor
+			);
+		}
+		cancellationToken.await(CompletableFuture.allOf(workers));
+	}
+
+	//The lanes share the iterator of the ranges: as in the blocking version each range taken is split until
+	//its size is under the grain size and the other parts are left to the other lanes
+	private CompletableFuture<Void> iterateBySplittingAsync(Object iterableObject, int parallelism, Executor executor, AsyncItemProcessor itemProcessor) {
+		int size = getSize(iterableObject);
+		if (size == 0) {
+			return CompletableFuture.completedFuture(null);
+		}
+		IntFunction<Object> itemRetriever = getItemRetriever(iterableObject);
+		int defaultGrainSize = Math.max(1, size / (parallelism * 8));
+		Deque<Spliterator.OfInt> ranges = split(size, parallelism, defaultGrainSize);
+		Iterator<Spliterator.OfInt> rangesIterator = new Iterator<Spliterator.OfInt>() {
+
+			@Override
+			public boolean hasNext() {
+				return !ranges.isEmpty();
+			}
+
+			@Override
+			public Spliterator.OfInt next() {
+				Spliterator.OfInt range = ranges.pollFirst();
+				long grainSize = batchSize != null ? batchSize.get(defaultGrainSize) : defaultGrainSize;
+				Spliterator.OfInt prefix;
+				while (range.estimateSize() > grainSize && (prefix = range.trySplit()) != null) {
+					ranges.offerLast(prefix);
+				}
+				return range;
+			}
+
+		};
+		return AsyncLoop.iterate(
+			rangesIterator,
+			Math.min(parallelism, size),
+			(range, rangeIdx) -> executeAsync(executor, Spliterators.iterator(range), itemRetriever, itemProcessor),
+			cancellationToken::isCancelled,
+			exceptionHandler
+		);
+	}
+
+	//The lanes share the iterator of the batches: a lane holds at most the items of a batch, so the size of the
+	//batches is bounded to keep the items held by all the lanes under maxInFlight
+	private CompletableFuture<Void> iterateInBatchesAsync(
+		Iterator<?> iterator,
+		int lanesCount,
+		Integer maxInFlight,
+		Executor executor,
+		AsyncItemProcessor itemProcessor
+	) {
+		int batchLanesCount = maxInFlight != null ? Math.min(lanesCount, maxInFlight) : lanesCount;
+		int maxBatchSize = maxInFlight != null ? Math.max(1, maxInFlight / batchLanesCount) : Integer.MAX_VALUE;
+		int[] idx = {0};
+		Iterator<Batch> batchesIterator = new Iterator<Batch>() {
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public Batch next() {
+				Object[] items = new Object[Math.min(batchSize != null ? batchSize.get(1) : 1, maxBatchSize)];
+				int itemsCount = 0;
+				while (itemsCount < items.length && iterator.hasNext()) {
+					items[itemsCount++] = iterator.next();
+				}
+				Batch batch = new Batch(idx[0], itemsCount < items.length ? Arrays.copyOf(items, itemsCount) : items);
+				idx[0] += itemsCount;
+				return batch;
+			}
+
+		};
+		return AsyncLoop.iterate(
+			batchesIterator,
+			batchLanesCount,
+			(batch, batchIdx) -> executeAsync(
+				executor,
+				IntStream.range(batch.firstItemIndex, batch.firstItemIndex + batch.items.length).iterator(),
+				itemIdx -> batch.items[itemIdx - batch.firstItemIndex],
+				itemProcessor
+			),
+			cancellationToken::isCancelled,
+			exceptionHandler
+		);
+	}
+
+	//Executes on the executor the items of a range or of a batch one after the other: only the part of the
+	//items executed by the thread of the executor can be interrupted
+	private CompletableFuture<Void> executeAsync(
+		Executor executor,
+		Iterator<Integer> indexes,
+		IntFunction<Object> itemRetriever,
+		AsyncItemProcessor itemProcessor
+	) {
+		return CompletableFuture.completedFuture(null).thenComposeAsync(result -> cancellationToken.start(() -> {
+			long startTime = batchSize != null ? batchSize.startMeasuring() : 0;
+			int[] processedItemsCount = {0};
+			return AsyncLoop.iterate(
+				indexes,
+				1,
+				(itemIdx, idx) -> {
+					++processedItemsCount[0];
+					return processAsync(itemRetriever.apply(itemIdx), itemIdx, itemProcessor);
+				},
+				cancellationToken::isCancelled,
+				null
+			).thenRun(() -> {
+				if (batchSize != null) {
+					batchSize.record(processedItemsCount[0], startTime);
+				}
+			});
+		}), executor);
+	}
+
+	private CompletableFuture<Void> processAsync(Object item, int idx, AsyncItemProcessor itemProcessor) {
+		CompletableFuture<Boolean> itemCompletion;
+		try {
+			itemCompletion = itemProcessor.process(item, idx);
+		} catch (Throwable exc) {
+			itemCompletion = Functions.failedFuture(exc);
+		}
+		return itemCompletion.handle((stop, exc) -> {
+			if (exc != null) {
+				if (!cancellationToken.isCausedByCancellation(exc)) {
+					exceptionHandler.apply(exc instanceof CompletionException ? (CompletionException)exc : new CompletionException(exc));
+				}
+			} else if (stop) {
+				cancellationToken.cancel();
+			}
+			return null;
+		});
+	}
+
+	private static int getSize(Object iterableObject) {
+		if (iterableObject instanceof List) {
+			return ((List<?>)iterableObject).size();
+		} else if (iterableObject instanceof Object[]) {
+			return ((Object[])iterableObject).length;
+		}
+		return Array.getLength(iterableObject);
+	}
+
+	private static IntFunction<Object> getItemRetriever(Object iterableObject) {
+		if (iterableObject instanceof List) {
+			return ((List<?>)iterableObject)::get;
+		} else if (iterableObject instanceof Object[]) {
+			Object[] array = (Object[])iterableObject;
+			return idx -> array[idx];
+		}
+		return idx -> Array.get(iterableObject, idx);
+	}
+
+	//The range is split in advance to give to each worker something to start with
+	private static Deque<Spliterator.OfInt> split(int size, int parallelism, int defaultGrainSize) {
+		Deque<Spliterator.OfInt> ranges = new ConcurrentLinkedDeque<>();
+		Spliterator.OfInt range = IntStream.range(0, size).spliterator();
+		for (int splitsCount = 1; splitsCount < parallelism && range.estimateSize() > defaultGrainSize; splitsCount++) {
+			Spliterator.OfInt prefix = range.trySplit();
+			if (prefix == null) {
+				break;
+			}
+			ranges.offerLast(prefix);
+		}
+		ranges.offerLast(range);
+		return ranges;
+	}
+
+	//Each worker splits the range it takes until the size of the range is under the grain size
+	//and leaves the other parts in the shared deque where the idle workers steal them
+	private void work(Deque<Spliterator.OfInt> ranges, IntFunction<Object> itemRetriever, int defaultGrainSize) {
+		Spliterator.OfInt range;
+		while (!cancellationToken.isCancelled() && (range = ranges.pollFirst()) != null) {
+			long grainSize = batchSize != null ? batchSize.get(defaultGrainSize) : defaultGrainSize;
+			Spliterator.OfInt prefix;
+			while (range.estimateSize() > grainSize && (prefix = range.trySplit()) != null) {
+				ranges.offerLast(prefix);
+			}
+			long startTime = batchSize != null ? batchSize.startMeasuring() : 0;
+			int itemsCount = (int)range.estimateSize();
+			while (!cancellationToken.isCancelled() && range.tryAdvance((int idx) -> process(itemRetriever.apply(idx), idx))) {
+
+			}
+			if (batchSize != null) {
+				batchSize.record(itemsCount - (int)range.estimateSize(), startTime);
+			}
+		}
+	}
+
+	private void process(Object item, int idx) {
+		try {
+			if (itemProcessor.process(item, idx)) {
+				cancellationToken.cancel();
+			}
+		} catch (Throwable exc) {
+			if (!cancellationToken.isCausedByCancellation(exc)) {
+				exceptionHandler.apply(new CompletionException(exc));
+			}
+		}
+	}
+
+	static class Settings {
+		static final Settings DEFAULT = new Settings(null, null, null, false, null, null);
+
+		final Integer parallelism;
+		final BatchSize batchSize;
+		final Integer maxInFlight;
+		final boolean interruptOnStop;
+		//Used only by the pipelined loops
+		final Integer queueCapacity;
+		final int[] stageWorkers;
+
+		private Settings(
+			Integer parallelism,
+			BatchSize batchSize,
+			Integer maxInFlight,
+			boolean interruptOnStop,
+			Integer queueCapacity,
+			int[] stageWorkers
+		) {
+			this.parallelism = parallelism;
+			this.batchSize = batchSize;
+			this.maxInFlight = maxInFlight;
+			this.interruptOnStop = interruptOnStop;
+			this.queueCapacity = queueCapacity;
+			this.stageWorkers = stageWorkers;
+		}
+
+		static Settings create(Integer parallelism, BatchSize batchSize, Integer maxInFlight) {
+			return new Settings(parallelism, batchSize, maxInFlight, false, null, null);
+		}
+
+		static Settings create(Config config) {
+			return new Settings(
+				config.getThreadsNumberAsInteger(),
+				BatchSize.create(config.getBatchSize()),
+				config.getMaxInFlight(),
+				config.isInterruptOnStop(),
+				config.getQueueCapacity(),
+				config.isPipeline() ? config.getStageWorkers() : null
+			);
+		}
+	}
+
+	private static class Batch {
+		private final int firstItemIndex;
+		private final Object[] items;
+
+		private Batch(int firstItemIndex, Object[] items) {
+			this.firstItemIndex = firstItemIndex;
+			this.items = items;
+		}
+	}
+
+	@FunctionalInterface
+	static interface AsyncItemProcessor {
+
+		//Returns a stage completed with true if the iteration must be stopped
+		CompletableFuture<Boolean> process(Object item, int idx);
+
+	}
+
+	@FunctionalInterface
+	static interface ItemProcessor {
+
+		//Returns true if the iteration must be stopped
+		boolean process(Object item, int idx);
+
+	}
+
+	//Number of consecutive items executed by a task: in automatic mode it is computed from the
+	//average time spent on an item so that a task lasts about TARGET_TASK_DURATION nanoseconds
+	static class BatchSize {
+		static final long TARGET_TASK_DURATION = 1000000;
+		static final int MAX_AUTO_VALUE = 65536;
+
+		private final int value;
+		private volatile long averageItemDuration;
+
+		private BatchSize(int value) {
+			this.value = value;
+		}
+
+		static BatchSize create(String value) {
+			if (value == null || value.trim().isEmpty()) {
+				return null;
+			}
+			return new BatchSize("auto".equalsIgnoreCase(value.trim()) ? 0 : Integer.valueOf(value.trim()));
+		}
+
+		boolean isAuto() {
+			return value == 0;
+		}
+
+		int get(int defaultValue) {
+			if (!isAuto()) {
+				return value;
+			}
+			long averageItemDuration = this.averageItemDuration;
+			if (averageItemDuration == 0) {
+				return defaultValue;
+			}
+			return (int)Math.max(1, Math.min(MAX_AUTO_VALUE, TARGET_TASK_DURATION / averageItemDuration));
+		}
+
+		long startMeasuring() {
+			return isAuto() ? System.nanoTime() : 0;
+		}
+
+		void record(int itemsCount, long startTime) {
+			if (!isAuto() || itemsCount == 0) {
+				return;
+			}
+			long itemDuration = Math.max(1, (System.nanoTime() - startTime) / itemsCount);
+			long averageItemDuration = this.averageItemDuration;
+			//Exponentially weighted moving average: concurrent updates may be lost without consequences
+			this.averageItemDuration = averageItemDuration == 0 ?
+				itemDuration :
+				averageItemDuration + (itemDuration - averageItemDuration) / 8;
+		}
+	}
+}
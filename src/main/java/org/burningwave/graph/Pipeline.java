@@ -0,0 +1,424 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+//Executes the items of a pipelined loop: each function of the loop is a stage with its own bounded queue and
+//workers, so while an item is in a stage the next items can be in the previous ones. The clone of the context
+//created for each item flows through the stages and is released after the last one: the items keep the order of
+//the iteration only through the stages that have a single worker
+class Pipeline {
+	static final int DEFAULT_QUEUE_CAPACITY = 16;
+	private static final Object END = new Object();
+
+	private final BlockingQueue<Object>[] queues;
+	private final AtomicInteger[] runningWorkersCounters;
+	private final Semaphore inFlightItems;
+	private final StageProcessor stageProcessor;
+	private final Consumer<Context> itemFinalizer;
+	private final Function<Throwable, Void> exceptionHandler;
+	private final CancellationToken cancellationToken;
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Pipeline(
+		int[] stageWorkers,
+		int queueCapacity,
+		Integer maxInFlight,
+		StageProcessor stageProcessor,
+		Consumer<Context> itemFinalizer,
+		Function<Throwable, Void> exceptionHandler,
+		CancellationToken cancellationToken
+	) {
+		queues = new BlockingQueue[Math.max(1, stageWorkers.length)];
+		runningWorkersCounters = new AtomicInteger[queues.length];
+		for (int stage = 0; stage < queues.length; stage++) {
+			queues[stage] = new ArrayBlockingQueue<>(queueCapacity);
+			runningWorkersCounters[stage] = new AtomicInteger(getWorkersCount(stageWorkers, stage));
+		}
+		inFlightItems = maxInFlight != null ? new Semaphore(maxInFlight) : null;
+		this.stageProcessor = stageProcessor;
+		this.itemFinalizer = itemFinalizer;
+		this.exceptionHandler = exceptionHandler;
+		this.cancellationToken = cancellationToken;
+	}
+
+	private static int getWorkersCount(int[] stageWorkers, int stage) {
+		return stage < stageWorkers.length ? stageWorkers[stage] : 1;
+	}
+
+	//Each worker waits for the items for all the duration of the loop, so the executor must have a thread for each
+	//of them: the number of threads is checked when it is known
+	static void checkExecutor(Executor executor, int[] stageWorkers, String name) {
+		Integer threadsNumber = GraphScheduler.getThreadsNumber(executor);
+		int workersCount = getWorkersCount(stageWorkers);
+		if (threadsNumber != null && threadsNumber < workersCount) {
+			throw new IllegalArgumentException(
+				"The executor of the pipeline " + name + " has " + threadsNumber + " threads but its stages need " + workersCount + " workers"
+			);
+		}
+	}
+
+	static int getWorkersCount(int[] stageWorkers) {
+		int workersCount = 0;
+		for (int stage = 0; stage < Math.max(1, stageWorkers.length); stage++) {
+			workersCount += getWorkersCount(stageWorkers, stage);
+		}
+		return workersCount;
+	}
+
+	//When maxInFlight is not set an item can be waiting in each queue, processed by each worker and created by
+	//the producer
+	static int getMaxInFlightItemsCount(int[] stageWorkers, Integer queueCapacity, Integer maxInFlight) {
+		if (maxInFlight != null) {
+			return maxInFlight;
+		}
+		return Math.max(1, stageWorkers.length) * (queueCapacity != null ? queueCapacity : DEFAULT_QUEUE_CAPACITY) +
+			getWorkersCount(stageWorkers) + 1;
+	}
+
+	static void iterate(
+		Iterator<?> iterator,
+		int[] stageWorkers,
+		Integer queueCapacity,
+		Integer maxInFlight,
+		CancellationToken cancellationToken,
+		Executor executor,
+		ItemContextFactory itemContextFactory,
+		StageProcessor stageProcessor,
+		Consumer<Context> itemFinalizer,
+		BooleanSupplier stopIteration,
+		Function<Throwable, Void> exceptionHandler
+	) {
+		Pipeline pipeline = new Pipeline(
+			stageWorkers, queueCapacity != null ? queueCapacity : DEFAULT_QUEUE_CAPACITY, maxInFlight,
+			stageProcessor, itemFinalizer, exceptionHandler, cancellationToken
+		);
+		CompletableFuture<?>[] workers = new CompletableFuture<?>[getWorkersCount(stageWorkers)];
+		for (int stage = 0, worker = 0; stage < pipeline.queues.length; stage++) {
+			int workerStage = stage;
+			for (int stageWorker = 0; stageWorker < getWorkersCount(stageWorkers, stage); stageWorker++) {
+				workers[worker++] = CompletableFuture.runAsync(() -> pipeline.work(workerStage, stageWorkers.length), executor);
+			}
+		}
+		pipeline.produce(iterator, itemContextFactory, stopIteration);
+		cancellationToken.await(CompletableFuture.allOf(workers));
+	}
+
+	//Asynchronous version of iterate: no thread waits for the items. The items wait for a worker of their stage
+	//in the queue of the stage and each worker is a task that executes the stage on an item and passes the item
+	//to the next stage. The producer takes a new item each time an item leaves the pipeline, so the items in
+	//the pipeline are bounded as in the blocking version
+	static CompletableFuture<Void> iterateAsync(
+		Iterator<?> iterator,
+		int[] stageWorkers,
+		Integer queueCapacity,
+		Integer maxInFlight,
+		CancellationToken cancellationToken,
+		Executor executor,
+		ItemContextFactory itemContextFactory,
+		AsyncStageProcessor stageProcessor,
+		Consumer<Context> itemFinalizer,
+		BooleanSupplier stopIteration,
+		Function<Throwable, Void> exceptionHandler
+	) {
+		NonBlocking pipeline = new NonBlocking(
+			iterator, stageWorkers, getMaxInFlightItemsCount(stageWorkers, queueCapacity, maxInFlight), cancellationToken,
+			executor, itemContextFactory, stageProcessor, itemFinalizer, stopIteration, exceptionHandler
+		);
+		pipeline.produce();
+		return pipeline.completion;
+	}
+
+	private void produce(Iterator<?> iterator, ItemContextFactory itemContextFactory, BooleanSupplier stopIteration) {
+		try {
+			for (int idx = 0; !cancellationToken.isCancelled() && !stopIteration.getAsBoolean() && iterator.hasNext(); idx++) {
+				if (inFlightItems != null && !cancellationToken.acquire(inFlightItems, 1)) {
+					break;
+				}
+				queues[0].put(new Item(itemContextFactory.create(iterator.next(), idx)));
+			}
+			queues[0].put(END);
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			cancellationToken.cancel();
+			//The workers drain the queues without executing the stages once the token is cancelled
+			queues[0].clear();
+			queues[0].offer(END);
+		}
+	}
+
+	//The workers never stop before receiving the end of the items, otherwise the previous stages could block.
+	//The end is put back in the queue for the other workers of the stage and the last of them passes it
+	//to the next stage
+	private void work(int stage, int stagesCount) {
+		try {
+			Object element;
+			while ((element = queues[stage].take()) != END) {
+				Item item = (Item)element;
+				if (stage < stagesCount && !item.skipped && !cancellationToken.isCancelled()) {
+					process(stage, item);
+				}
+				if (stage < queues.length - 1) {
+					queues[stage + 1].put(item);
+				} else {
+					release(item);
+				}
+			}
+			queues[stage].put(END);
+			if (runningWorkersCounters[stage].decrementAndGet() == 0 && stage < queues.length - 1) {
+				queues[stage + 1].put(END);
+			}
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			cancellationToken.cancel();
+		}
+	}
+
+	private void process(int stage, Item item) {
+		try {
+			item.skipped = !stageProcessor.process(stage, item.context);
+		} catch (Throwable exc) {
+			item.skipped = true;
+			exceptionHandler.apply(new CompletionException(exc));
+		}
+	}
+
+	private void release(Item item) {
+		try {
+			itemFinalizer.accept(item.context);
+		} catch (Throwable exc) {
+			exceptionHandler.apply(new CompletionException(exc));
+		} finally {
+			if (inFlightItems != null) {
+				inFlightItems.release();
+			}
+		}
+	}
+
+	private static class NonBlocking {
+		private final Iterator<?> iterator;
+		private final int[] stageWorkers;
+		private final Queue<Item>[] queues;
+		private final AtomicInteger[] runningWorkersCounters;
+		private final int maxInFlightItemsCount;
+		private final CancellationToken cancellationToken;
+		private final Executor executor;
+		private final ItemContextFactory itemContextFactory;
+		private final AsyncStageProcessor stageProcessor;
+		private final Consumer<Context> itemFinalizer;
+		private final BooleanSupplier stopIteration;
+		private final Function<Throwable, Void> exceptionHandler;
+		private final CompletableFuture<Void> completion;
+		private int idx;
+		private int inFlightItemsCount;
+		private boolean ended;
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private NonBlocking(
+			Iterator<?> iterator,
+			int[] stageWorkers,
+			int maxInFlightItemsCount,
+			CancellationToken cancellationToken,
+			Executor executor,
+			ItemContextFactory itemContextFactory,
+			AsyncStageProcessor stageProcessor,
+			Consumer<Context> itemFinalizer,
+			BooleanSupplier stopIteration,
+			Function<Throwable, Void> exceptionHandler
+		) {
+			this.iterator = iterator;
+			this.stageWorkers = stageWorkers;
+			queues = new Queue[stageWorkers.length];
+			runningWorkersCounters = new AtomicInteger[queues.length];
+			for (int stage = 0; stage < queues.length; stage++) {
+				queues[stage] = new ConcurrentLinkedQueue<>();
+				runningWorkersCounters[stage] = new AtomicInteger();
+			}
+			this.maxInFlightItemsCount = maxInFlightItemsCount;
+			this.cancellationToken = cancellationToken;
+			this.executor = executor;
+			this.itemContextFactory = itemContextFactory;
+			this.stageProcessor = stageProcessor;
+			this.itemFinalizer = itemFinalizer;
+			this.stopIteration = stopIteration;
+			this.exceptionHandler = exceptionHandler;
+			completion = new CompletableFuture<>();
+		}
+
+		//Takes the next items until the items in the pipeline reach the limit: the pipeline is completed
+		//when the iteration is ended and the last item has left it
+		private void produce() {
+			List<Item> items = new ArrayList<>();
+			boolean completed;
+			synchronized (this) {
+				while (!ended && inFlightItemsCount < maxInFlightItemsCount) {
+					try {
+						if (cancellationToken.isCancelled() || stopIteration.getAsBoolean() || !iterator.hasNext()) {
+							ended = true;
+						} else {
+							items.add(new Item(itemContextFactory.create(iterator.next(), idx++)));
+							++inFlightItemsCount;
+						}
+					} catch (Throwable exc) {
+						ended = true;
+						exceptionHandler.apply(new CompletionException(exc));
+					}
+				}
+				completed = ended && inFlightItemsCount == 0;
+			}
+			if (completed) {
+				completion.complete(null);
+			}
+			for (Item item : items) {
+				enqueue(0, item);
+			}
+		}
+
+		private void enqueue(int stage, Item item) {
+			if (stage == queues.length) {
+				release(item);
+				return;
+			}
+			queues[stage].offer(item);
+			schedule(stage);
+		}
+
+		//The items leave a stage that has a single worker in the order in which they entered it
+		private void schedule(int stage) {
+			while (!queues[stage].isEmpty()) {
+				int runningWorkersCount = runningWorkersCounters[stage].get();
+				if (runningWorkersCount >= getWorkersCount(stageWorkers, stage)) {
+					return;
+				}
+				if (runningWorkersCounters[stage].compareAndSet(runningWorkersCount, runningWorkersCount + 1)) {
+					Item item = queues[stage].poll();
+					if (item == null) {
+						runningWorkersCounters[stage].decrementAndGet();
+						continue;
+					}
+					work(stage, item);
+				}
+			}
+		}
+
+		private void work(int stage, Item item) {
+			CompletableFuture.completedFuture(item).thenComposeAsync(startedItem -> process(stage, startedItem), executor).whenComplete((result, exc) -> {
+				if (exc != null) {
+					item.skipped = true;
+					exceptionHandler.apply(exc instanceof CompletionException ? (CompletionException)exc : new CompletionException(exc));
+				}
+				enqueue(stage + 1, item);
+				runningWorkersCounters[stage].decrementAndGet();
+				schedule(stage);
+			});
+		}
+
+		private CompletableFuture<Void> process(int stage, Item item) {
+			if (item.skipped || cancellationToken.isCancelled()) {
+				return CompletableFuture.completedFuture(null);
+			}
+			CompletableFuture<Boolean> stageCompletion;
+			try {
+				stageCompletion = stageProcessor.process(stage, item.context);
+			} catch (Throwable exc) {
+				stageCompletion = Functions.failedFuture(exc);
+			}
+			return stageCompletion.handle((processed, exc) -> {
+				if (exc != null) {
+					item.skipped = true;
+					exceptionHandler.apply(exc instanceof CompletionException ? (CompletionException)exc : new CompletionException(exc));
+				} else {
+					item.skipped = !processed;
+				}
+				return null;
+			});
+		}
+
+		private void release(Item item) {
+			try {
+				itemFinalizer.accept(item.context);
+			} catch (Throwable exc) {
+				exceptionHandler.apply(new CompletionException(exc));
+			} finally {
+				synchronized (this) {
+					--inFlightItemsCount;
+				}
+			}
+			produce();
+		}
+	}
+
+	private static class Item {
+		private final Context context;
+		//True when a stage stopped the processing of the item or failed: the next stages are skipped
+		private boolean skipped;
+
+		private Item(Context context) {
+			this.context = context;
+		}
+	}
+
+	@FunctionalInterface
+	static interface ItemContextFactory {
+
+		Context create(Object item, int idx);
+
+	}
+
+	@FunctionalInterface
+	static interface AsyncStageProcessor {
+
+		//Returns a stage completed with false if the next stages must be skipped for the item
+		CompletableFuture<Boolean> process(int stage, Context itemContext);
+
+	}
+
+	@FunctionalInterface
+	static interface StageProcessor {
+
+		//Returns false if the next stages must be skipped for the item
+		boolean process(int stage, Context itemContext);
+
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Burningwave Graph.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/graph
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.graph;
+
+import static org.burningwave.core.assembler.StaticComponentContainer.Driver;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.burningwave.core.Component;
+
+//Reduces the iterated items in the same pass of the loop: the identity, accumulator and combiner
+//methods are bound once when the functions are built and each execution of the loop creates a Reduction
+class Reducer implements Component {
+	private MethodHandle identity;
+	private MethodHandle accumulator;
+	private MethodHandle combiner;
+	private String resultKey;
+
+	private Reducer(MethodHandle identity, MethodHandle accumulator, MethodHandle combiner, String resultKey) {
+		this.identity = identity;
+		this.accumulator = accumulator;
+		this.combiner = combiner;
+		this.resultKey = resultKey;
+	}
+
+	//The handles must be of type ()Object, (Object, Object)Object and (Object, Object)Object
+	static Reducer create(MethodHandle identity, MethodHandle accumulator, MethodHandle combiner, String resultKey) {
+		return new Reducer(identity, accumulator, combiner, resultKey);
+	}
+
+	String getResultKey() {
+		return resultKey;
+	}
+
+	Reduction start() {
+		return new Reduction();
+	}
+
+	Object identity() {
+		try {
+			return (Object)identity.invokeExact();
+		} catch (Throwable exc) {
+			return Driver.throwException(exc);
+		}
+	}
+
+	Object accumulate(Object partialResult, Context context) {
+		try {
+			return (Object)accumulator.invokeExact(partialResult, (Object)context);
+		} catch (Throwable exc) {
+			return Driver.throwException(exc);
+		}
+	}
+
+	Object combine(Object partialResult, Object otherPartialResult) {
+		try {
+			return (Object)combiner.invokeExact(partialResult, otherPartialResult);
+		} catch (Throwable exc) {
+			return Driver.throwException(exc);
+		}
+	}
+
+	@Override
+	public void close() {
+		identity = null;
+		accumulator = null;
+		combiner = null;
+		resultKey = null;
+	}
+
+	//Each thread that executes the items of the loop accumulates in its own partial result: since a partial
+	//result is touched only by its thread no synchronization is needed until the partial results are combined
+	class Reduction {
+		private final Map<Thread, PartialResult> partialResults;
+
+		private Reduction() {
+			partialResults = new ConcurrentHashMap<>();
+		}
+
+		void accumulate(Context context) {
+			Thread thread = Thread.currentThread();
+			PartialResult partialResult = partialResults.get(thread);
+			if (partialResult == null) {
+				partialResult = new PartialResult(identity());
+				partialResults.put(thread, partialResult);
+			}
+			partialResult.value = Reducer.this.accumulate(partialResult.value, context);
+		}
+
+		//Must be called after all the items of the loop have been executed
+		Object complete() {
+			Object result = null;
+			boolean first = true;
+			for (PartialResult partialResult : partialResults.values()) {
+				result = first ? partialResult.value : combine(result, partialResult.value);
+				first = false;
+			}
+			return first ? identity() : result;
+		}
+	}
+
+	private static class PartialResult {
+		private Object value;
+
+		private PartialResult(Object value) {
+			this.value = value;
+		}
+	}
+}
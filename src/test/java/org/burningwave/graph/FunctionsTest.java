@@ -1,16 +1,40 @@
 package org.burningwave.graph;
 
 
+import static org.burningwave.core.assembler.StaticComponentContainer.JVMInfo;
+import static org.burningwave.core.assembler.StaticComponentContainer.ManagedLoggerRepository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
+import org.burningwave.graph.ControllableContext.Directive;
 import org.burningwave.graph.bean.Person;
 import org.burningwave.graph.service.ServiceOne;
 import org.burningwave.graph.service.ServiceTwo;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 
@@ -98,4 +122,1086 @@ public class FunctionsTest extends BaseTest {
 			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
 		});
 	}
+
+	@Test
+	public void iterableFunctionsWithExecutionPlanTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Map<String, Object> services = new LinkedHashMap<>();
+			services.put("service", new ServiceTwo());
+
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/IterableFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			ExecutionPlan executionPlan = factory.compile(
+				graphConfig, services
+			);
+			//The same plan is shared by concurrent executions
+			Context dataOne = factory.createContext();
+			Context dataTwo = factory.createContext();
+			CompletableFuture<Void> executionOne = CompletableFuture.runAsync(() -> executionPlan.executeOn(dataOne));
+			executionPlan.executeOn(dataTwo);
+			executionOne.join();
+			List<Person> personsOne = dataOne.get("persons");
+			List<Person> personsTwo = dataTwo.get("persons");
+			factory.close(executionPlan);
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, personsOne.size());
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, personsTwo.size());
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE - 1, personsTwo.get(ServiceTwo.PERSONS_COLLECTION_SIZE - 1).getId());
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void sharedExecutorFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Map<String, Object> services = new LinkedHashMap<>();
+			services.put("service", new ServiceTwo());
+
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/SharedExecutorFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			//Pool supplied by the host application
+			ExecutorService itemsPool = Executors.newFixedThreadPool(3);
+			factory.getGraphScheduler().register("itemsPool", itemsPool);
+			Functions functionsOne = factory.build(
+				graphConfig, services
+			);
+			Functions functionsTwo = factory.build(
+				graphConfig, services
+			);
+			Context dataOne = factory.createContext();
+			Context dataTwo = factory.createContext();
+			CompletableFuture<Void> executionOne = CompletableFuture.runAsync(() -> functionsOne.executeOn(dataOne));
+			functionsTwo.executeOn(dataTwo);
+			executionOne.join();
+			List<Person> personsOne = dataOne.get("persons");
+			List<Person> personsTwo = dataTwo.get("persons");
+			factory.close(functionsOne, functionsTwo);
+			assertFalse(itemsPool.isShutdown());
+			assertFalse(factory.getGraphScheduler().get("stepsPool").isShutdown());
+			itemsPool.shutdown();
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, personsOne.size());
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, personsTwo.size());
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE - 1, personsOne.get(ServiceTwo.PERSONS_COLLECTION_SIZE - 1).getId());
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void registeredExecutorFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/RegisteredExecutorFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			//All the nested groups share the single thread of a pool supplied by the host application
+			ExecutorService registeredPool = Executors.newFixedThreadPool(1);
+			factory.getGraphScheduler().register("registeredPool", registeredPool);
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				//The thread of the pool that waits for the nested groups runs their queued tasks
+				CompletableFuture.runAsync(() -> functions.executeOn(data)).get(30, TimeUnit.SECONDS);
+				factory.close(functions);
+				Object[] outputArray = data.get("outputArray");
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, outputArray.length);
+				for (int i = 0; i < outputArray.length; i++) {
+					assertEquals(i, outputArray[i]);
+				}
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE + 4, service.getCounter());
+			}
+			assertFalse(registeredPool.isShutdown());
+			registeredPool.shutdown();
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void boundedDefaultExecutorTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			GraphScheduler graphScheduler = GraphScheduler.create(60000, 2);
+			ExecutorService defaultExecutor = graphScheduler.getDefault();
+			for (int threadsNumber : new int[] {2, 4}) {
+				graphScheduler.setDefaultExecutorThreadsNumber(threadsNumber);
+				assertEquals(threadsNumber, GraphScheduler.getThreadsNumber(defaultExecutor));
+				Collection<Thread> threads = ConcurrentHashMap.newKeySet();
+				List<CompletableFuture<Void>> tasks = new ArrayList<>();
+				//The tasks that exceed the threads of the pool are queued
+				for (int i = 0; i < 50; i++) {
+					tasks.add(CompletableFuture.runAsync(() -> {
+						threads.add(Thread.currentThread());
+						try {
+							Thread.sleep(5);
+						} catch (InterruptedException exc) {
+							Thread.currentThread().interrupt();
+						}
+					}, defaultExecutor));
+				}
+				CompletableFuture.allOf(tasks.toArray(new CompletableFuture[tasks.size()])).get(30, TimeUnit.SECONDS);
+				assertTrue(threads.size() <= threadsNumber);
+			}
+			//The number of threads of an existing executor is not changed
+			ExecutorService pool = graphScheduler.getOrCreate("pool", 2);
+			assertSame(pool, graphScheduler.getOrCreate("pool", 3));
+			assertEquals(2, GraphScheduler.getThreadsNumber(pool));
+			graphScheduler.close();
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void virtualThreadsFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Map<String, Object> services = new LinkedHashMap<>();
+			services.put("service", new ServiceTwo());
+
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/VirtualThreadsFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			Functions functions = factory.build(
+				graphConfig, services
+			);
+
+			Context data = factory.createContext();
+			functions.executeOn(data);
+			List<Person> persons = data.get("persons");
+			factory.close(functions);
+			assertEquals(JVMInfo.getVersion() >= 21, factory.getGraphScheduler().isVirtualThreadsExecutorAvailable());
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, persons.size());
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE - 1, persons.get(ServiceTwo.PERSONS_COLLECTION_SIZE - 1).getId());
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void stopIterationFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Map<String, Object> services = new LinkedHashMap<>();
+			ServiceTwo service = new ServiceTwo();
+			services.put("service", service);
+
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/StopIterationFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			Functions functions = factory.build(
+				graphConfig, services
+			);
+
+			Context data = factory.createContext();
+			functions.executeOn(data);
+			factory.close(functions);
+			assertTrue(service.getCounter() > 0);
+			assertTrue(service.getCounter() < ServiceTwo.PERSONS_COLLECTION_SIZE);
+			assertFalse(data.containsOneOf("itemsCounter", Directive.Functions.ForCollection.STOP_ITERATION));
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void batchedIterableFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/BatchedFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			//The asynchronous execution splits the ranges and submits the batches as the blocking one
+			for (boolean async : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				if (async) {
+					functions.executeOnAsync(data).toCompletableFuture().get(30, TimeUnit.SECONDS);
+				} else {
+					functions.executeOn(data);
+				}
+				List<Person> persons = data.get("linkedPersons");
+				Object[] outputArray = data.get("outputArray");
+				factory.close(functions);
+				for (int i = 0; i < ServiceTwo.PERSONS_COLLECTION_SIZE; i++) {
+					assertEquals(i, ((Person)outputArray[i]).getId());
+				}
+				assertEquals(persons.get(ServiceTwo.PERSONS_COLLECTION_SIZE - 1), outputArray[ServiceTwo.PERSONS_COLLECTION_SIZE - 1]);
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE * 2, service.getCounter());
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void lazyIterableFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Map<String, Object> services = new LinkedHashMap<>();
+			ServiceTwo service = new ServiceTwo();
+			services.put("service", service);
+
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/LazyIterableFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			Functions functions = factory.build(
+				graphConfig, services
+			);
+
+			Context data = factory.createContext();
+			functions.executeOn(data);
+			Object[] outputArray = data.get("outputArray");
+			Object[] mapOutputArray = data.get("mapOutputArray");
+			Map<String, Person> personsMap = data.get("personsMap");
+			factory.close(functions);
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, outputArray.length);
+			for (int i = 0; i < ServiceTwo.PERSONS_COLLECTION_SIZE; i++) {
+				assertEquals(i, ((Person)outputArray[i]).getId());
+			}
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, service.getCounter());
+			assertEquals(new ArrayList<>(personsMap.values()), Arrays.asList(mapOutputArray));
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void compiledIterableFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Map<String, Object> services = new LinkedHashMap<>();
+			ServiceTwo service = new ServiceTwo();
+			services.put("service", service);
+
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/CompiledFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			Functions functions = factory.build(
+				graphConfig, services
+			);
+
+			Context data = factory.createContext();
+			functions.executeOn(data);
+			List<Person> persons = data.get("persons");
+			Object[] outputArray = data.get("outputArray");
+			factory.close(functions);
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, persons.size());
+			assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, service.getCounter());
+			assertEquals(persons.get(ServiceTwo.PERSONS_COLLECTION_SIZE - 1), outputArray[ServiceTwo.PERSONS_COLLECTION_SIZE - 1]);
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void loopResultSinkFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/LoopResultSinkFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				services.put("service", new ServiceTwo());
+				Collection<Object> consumedPersons = new ConcurrentLinkedQueue<>();
+				services.put("personsConsumer", (Consumer<Object>)consumedPersons::add);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				List<Person> persons = data.get("persons");
+				Collection<Person> collectedPersons = data.get("collectedPersons");
+				Map<Integer, Person> evenPersons = data.get("evenPersons");
+				factory.close(functions);
+				assertEquals(new HashSet<>(persons), new HashSet<>(collectedPersons));
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE / 2, evenPersons.size());
+				for (int i = 0; i < ServiceTwo.PERSONS_COLLECTION_SIZE; i += 2) {
+					assertEquals(persons.get(i), evenPersons.get(i));
+				}
+				assertEquals(persons, new ArrayList<>(consumedPersons));
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void numericLoopResultFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/NumericLoopResultFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				services.put("service", new ServiceTwo());
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				int[] indexes = data.get("indexes");
+				long[] squares = data.get("squares");
+				double[] halves = data.get("halves");
+				factory.close(functions);
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, indexes.length);
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, squares.length);
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, halves.length);
+				for (int i = 0; i < ServiceTwo.PERSONS_COLLECTION_SIZE; i++) {
+					assertEquals(i, indexes[i]);
+					assertEquals((long)i * i, squares[i]);
+					assertEquals(i / 2D, halves[i]);
+				}
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void reduceFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/ReduceFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				Long indexesSum = data.get("indexesSum");
+				Long itemsCount = data.get("itemsCount");
+				factory.close(functions);
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE * 2, service.getCounter());
+				assertEquals((long)ServiceTwo.PERSONS_COLLECTION_SIZE * (ServiceTwo.PERSONS_COLLECTION_SIZE - 1) / 2, indexesSum);
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, itemsCount);
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void cancellationFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/CancellationFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				//The asynchronous execution interrupts the sleeping items as the blocking one
+				for (boolean async : new boolean[] {false, true}) {
+					Map<String, Object> services = new LinkedHashMap<>();
+					ServiceTwo service = new ServiceTwo();
+					services.put("service", service);
+					graphConfig.setCompile(compile);
+					Functions functions = factory.build(
+						graphConfig, services
+					);
+
+					Context data = factory.createContext();
+					long startTime = System.currentTimeMillis();
+					if (async) {
+						functions.executeOnAsync(data).toCompletableFuture().get(30, TimeUnit.SECONDS);
+					} else {
+						functions.executeOn(data);
+					}
+					long elapsedTime = System.currentTimeMillis() - startTime;
+					factory.close(functions);
+					//The queued functions of the stopped group are skipped and the sleeping items are interrupted
+					assertEquals(1, service.getCounter());
+					assertTrue(elapsedTime < 30000);
+				}
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void timeoutFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/TimeoutFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				long startTime = System.currentTimeMillis();
+				functions.executeOn(data, Duration.ofSeconds(30));
+				long elapsedTime = System.currentTimeMillis() - startTime;
+				factory.close(functions);
+				//The expired functions are handled by the onException of the enclosing groups
+				assertEquals(2, service.getCounter());
+				assertTrue(elapsedTime < 30000);
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void lateWritersFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/LateWritersFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			ContextPool contextPool = factory.createContextPool();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+				Context data = contextPool.acquire();
+				long startTime = System.currentTimeMillis();
+				try {
+					functions.executeOn(data, Duration.ofMillis(100));
+				} catch (Throwable exc) {
+					logInfo("Execution timed out: {}", exc.toString());
+				}
+				//The execution ends at the deadline without waiting for the items that are still running
+				assertTrue(System.currentTimeMillis() - startTime < 250);
+				data.close();
+				//The context is given back to the pool only when the late items are completed
+				Context otherData = contextPool.acquire();
+				assertNotSame(data, otherData);
+				otherData.close();
+				Thread.sleep(500);
+				assertEquals(2, service.getCounter());
+				assertEquals(2, contextPool.getIdleContextsCount());
+				Context reusedData = contextPool.acquire();
+				Context otherReusedData = contextPool.acquire();
+				assertTrue(reusedData == data || otherReusedData == data);
+				assertNull(reusedData.get("lateResult"));
+				assertNull(otherReusedData.get("lateResult"));
+				reusedData.close();
+				otherReusedData.close();
+				factory.close(functions);
+			}
+			factory.close(contextPool);
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void dependsOnFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Map<String, Object> services = new LinkedHashMap<>();
+			services.put("service", new ServiceTwo());
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/DependsOnFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				factory.close(functions);
+				//Each function starts only after the functions it depends on have completed
+				assertEquals(5, (Integer)data.get("d"));
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void contextAccessFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/ContextAccessFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				factory.close(functions);
+				//The writers of different keys run concurrently while the reader waits for both
+				assertEquals(2, service.getMaxRunningFunctions());
+				assertEquals(3, (Integer)data.get("sum"));
+				assertEquals(1, service.getCounter());
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void contextAccessBarriersFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/ContextAccessBarriersFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				factory.close(functions);
+				//The functions that can stop the processing are executed before the next ones
+				assertEquals(1, (Integer)data.get("z"));
+				assertNull(data.get("x"));
+				assertNull(data.get("y"));
+				assertEquals(0, service.getMaxRunningFunctions());
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void pipelinedIterableFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/PipelinedIterableFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				factory.close(functions);
+				Object[] outputArray = data.get("outputArray");
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, outputArray.length);
+				for (int i = 0; i < outputArray.length; i++) {
+					assertEquals(i * 2, outputArray[i]);
+				}
+				//While an item is in the second stage the next one is in the first
+				assertEquals(2, service.getMaxRunningFunctions());
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, service.getCounter());
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void multiWorkerPipelinedIterableFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/MultiWorkerPipelinedIterableFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				//The asynchronous execution gives to the stages the same workers without blocking them
+				for (boolean async : new boolean[] {false, true}) {
+					Map<String, Object> services = new LinkedHashMap<>();
+					ServiceTwo service = new ServiceTwo();
+					services.put("service", service);
+					graphConfig.setCompile(compile);
+					Functions functions = factory.build(
+						graphConfig, services
+					);
+
+					Context data = factory.createContext();
+					if (async) {
+						functions.executeOnAsync(data).toCompletableFuture().get(30, TimeUnit.SECONDS);
+					} else {
+						functions.executeOn(data);
+					}
+					factory.close(functions);
+					Object[] outputArray = data.get("outputArray");
+					assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, outputArray.length);
+					for (int i = 0; i < outputArray.length; i++) {
+						assertEquals(i * 2, outputArray[i]);
+					}
+					//The three workers of the first stage run together while the single worker of the second one
+					//processes the previous item
+					assertTrue(service.getMaxRunningFunctions() >= 3 && service.getMaxRunningFunctions() <= 4);
+					assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, service.getCounter());
+				}
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void asyncExecutionFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/AsyncExecutionFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				//All the nested groups share a single thread: they must not wait for their children
+				Context result = functions.executeOnAsync(data).toCompletableFuture().get(30, TimeUnit.SECONDS);
+				factory.close(functions);
+				assertTrue(result == data);
+				Object[] outputArray = data.get("outputArray");
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, outputArray.length);
+				for (int i = 0; i < outputArray.length; i++) {
+					assertEquals(i, outputArray[i]);
+				}
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE + 4, service.getCounter());
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void nestedAsyncLoopsOnSingleThreadFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/NestedAsyncLoopsOnSingleThreadFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				//The thread of the outer loop waits for the inner loop while running its items: if it didn't,
+				//the execution would stop at the timeout of the graph without completing
+				functions.executeOn(data);
+				factory.close(functions);
+				assertEquals((long)ServiceTwo.PERSONS_COLLECTION_SIZE * ServiceTwo.PERSONS_COLLECTIONS_NUMBER, service.getCounter());
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void adaptiveThreadsNumberFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/AdaptiveThreadsNumberFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				AdaptiveLimit adaptiveLimit = factory.getGraphScheduler().getAdaptiveLimit("itemsManager");
+				factory.close(functions);
+				//The limit of a closed group is no longer registered
+				assertNull(factory.getGraphScheduler().getAdaptiveLimit("itemsManager"));
+				Object[] outputArray = data.get("outputArray");
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, outputArray.length);
+				for (int i = 0; i < outputArray.length; i++) {
+					assertEquals(i, outputArray[i]);
+				}
+				//The latency of a task is recorded after its completion has been notified to the loop
+				for (long deadline = System.currentTimeMillis() + 10000;
+					adaptiveLimit.getCompletedTasksCount() < ServiceTwo.PERSONS_COLLECTION_SIZE && System.currentTimeMillis() < deadline;) {
+					Thread.sleep(10);
+				}
+				logInfo("{}", adaptiveLimit);
+				//Each item is submitted as a task
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, adaptiveLimit.getCompletedTasksCount());
+				assertTrue(adaptiveLimit.getLimit() >= 1 && adaptiveLimit.getLimit() <= AdaptiveLimit.MAX_VALUE);
+				assertTrue(adaptiveLimit.getMinLatency() > 0 && adaptiveLimit.getAverageLatency() > 0);
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void pooledContextsFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/DependsOnFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			ContextPool contextPool = factory.createContextPool();
+			Context firstContext = null;
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				services.put("service", new ServiceTwo());
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+				for (int i = 0; i < 3; i++) {
+					Context data = contextPool.acquire();
+					if (firstContext == null) {
+						firstContext = data;
+					}
+					//The context released to the pool is cleared and handed out again
+					assertTrue(firstContext == data);
+					assertNull(data.get("d"));
+					functions.executeOn(data);
+					assertEquals(5, (Integer)data.get("d"));
+					data.close();
+					assertEquals(1, contextPool.getIdleContextsCount());
+				}
+				factory.close(functions);
+			}
+			//A context closed by more threads at the same time is given back once
+			Context concurrentlyClosedContext = contextPool.acquire();
+			CompletableFuture<?>[] closings = new CompletableFuture<?>[8];
+			for (int i = 0; i < closings.length; i++) {
+				closings[i] = CompletableFuture.runAsync(concurrentlyClosedContext::close);
+			}
+			CompletableFuture.allOf(closings).join();
+			assertEquals(1, contextPool.getIdleContextsCount());
+			factory.close(contextPool);
+			assertEquals(0, contextPool.getIdleContextsCount());
+
+			ContextPool generatedContextPool = factory.createContextPool(ServiceOne.Context.class);
+			ServiceOne.Context generatedContext = generatedContextPool.acquire();
+			generatedContext.setInputCollection(new ArrayList<>());
+			factory.close(generatedContext);
+			ServiceOne.Context reusedGeneratedContext = generatedContextPool.acquire();
+			assertTrue(generatedContext == reusedGeneratedContext);
+			assertNull(reusedGeneratedContext.getInputCollection());
+			factory.close(generatedContextPool);
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void itemContextsFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/ItemContextsFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				ServiceTwo service = new ServiceTwo();
+				services.put("service", service);
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				factory.close(functions);
+				Object[] outputArray = data.get("outputArray");
+				for (int i = 0; i < outputArray.length; i++) {
+					assertEquals(i, outputArray[i]);
+				}
+				assertEquals(ServiceTwo.PERSONS_COLLECTION_SIZE, service.getCounter());
+				//Each of the two workers rebinds its clone of the context to the next item
+				assertTrue(service.getItemContextsCount() <= 2);
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void contextKeysFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/ContextAccessFunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> services = new LinkedHashMap<>();
+				services.put("service", new ServiceTwo());
+				graphConfig.setCompile(compile);
+				//The keys read and written by the functions are registered when the graph is built
+				Functions functions = factory.build(
+					graphConfig, services
+				);
+				ContextKey<Integer> sumKey = factory.getContextKey("sum", Integer.class);
+
+				Context data = factory.createContext();
+				functions.executeOn(data);
+				factory.close(functions);
+				Context.Container container = (Context.Container)((Context.Abst)data).container;
+				assertTrue(container.slotOf(sumKey) >= 0);
+				assertEquals(3, data.get(sumKey));
+				assertEquals(3, (Integer)data.get("sum"));
+				data.put(sumKey, 4);
+				assertEquals(4, (Integer)data.get("sum"));
+				//The views and the compound operations of the container see the values stored in the slots
+				assertTrue(container.keySet().contains("sum"));
+				assertTrue(container.containsValue(4));
+				assertEquals(container.size(), container.entrySet().size());
+				assertEquals(4, container.putIfAbsent("sum", 5));
+				container.compute("sum", (key, value) -> (Integer)value + 1);
+				assertEquals(5, data.get(sumKey));
+				//The keys registered after the creation of the context are stored in the map
+				ContextKey<String> lateKey = factory.getContextKey("lateKey" + compile, String.class);
+				data.put(lateKey, "value");
+				assertTrue(container.slotOf(lateKey) < 0);
+				assertEquals("value", data.get("lateKey" + compile));
+				data.removeAll("sum");
+				assertNull(data.get(sumKey));
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void fieldBackedContextFunctionsTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/FunctionsTestChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			for (boolean compile : new boolean[] {false, true}) {
+				Map<String, Object> objs = new LinkedHashMap<>();
+				objs.put("sharedService", new ServiceOne());
+				List<Object> list = new ArrayList<>();
+				for (int i = 0; i < 40000; i++) {
+					list.add(new Object());
+				}
+				graphConfig.setCompile(compile);
+				Functions functions = factory.build(
+					graphConfig, objs
+				);
+				ServiceOne.Context data = factory.createFieldBackedContext(ServiceOne.Context.class);
+				data.setInputCollection(list);
+				Context context = (Context)data;
+				//The properties are read and written through the fields also by key
+				assertSame(list, context.get("inputCollection"));
+				assertFalse(data.isValid());
+				context.put("valid", true);
+				assertTrue(data.isValid());
+				//The daemon is unlocked by the setter of the name called by a function
+				functions.executeOn(data);
+				factory.close(functions);
+				assertNotNull(context.get("outputArray"));
+				ServiceOne.Context clone = (ServiceOne.Context)context.createSymmetricClone();
+				clone.setInputCollection(null);
+				assertNull(data.getInputCollection());
+				context.removeAll("valid");
+				assertFalse(clone.isValid());
+				factory.close(context);
+			}
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void contextListenersTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Factory factory = Factory.getInstance();
+			Context data = factory.createContext();
+			int waitersCount = 64;
+			ExecutorService executor = Executors.newFixedThreadPool(waitersCount);
+			List<CompletableFuture<Integer>> waitings = new ArrayList<>();
+			for (int i = 0; i < waitersCount; i++) {
+				String key = "key[" + i % 8 + "]";
+				int expectedValue = i;
+				waitings.add(CompletableFuture.supplyAsync(() -> {
+					try {
+						return data.<Integer>waitForPut(key, value -> value != null && value >= expectedValue);
+					} catch (InterruptedException exc) {
+						throw new RuntimeException(exc);
+					}
+				}, executor));
+			}
+			//The writes of keys that nobody is waiting for don't unlock the waiters
+			for (int i = 0; i < 1000; i++) {
+				data.put("otherKey", i);
+			}
+			for (int i = 0; i < waitersCount; i++) {
+				data.put("key[" + i % 8 + "]", i);
+			}
+			for (int i = 0; i < waitersCount; i++) {
+				assertTrue(waitings.get(i).get(10, TimeUnit.SECONDS) >= i);
+			}
+			executor.shutdown();
+			//The waitings are removed when they end
+			assertFalse(((Context.Abst)data).mutexManager.hasMutexes());
+			assertNull(data.waitForPut("missingKey", value -> value != null, 10));
+			factory.close(data);
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	public void asyncContextListenersTest() {
+		testDoesNotThrow(() -> {
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " started");
+			Factory factory = Factory.getInstance();
+			Context data = factory.createContext();
+			int listenersCount = 1000;
+			Thread writer = Thread.currentThread();
+			ConcurrentLinkedQueue<Thread> completers = new ConcurrentLinkedQueue<>();
+			List<CompletableFuture<Integer>> listeners = new ArrayList<>();
+			for (int i = 0; i < listenersCount; i++) {
+				int expectedValue = i;
+				listeners.add(data.<Integer>onPut("key[" + i % 10 + "]", value -> value != null && value >= expectedValue).thenApply(value -> {
+					completers.add(Thread.currentThread());
+					return value;
+				}).toCompletableFuture());
+			}
+			CompletableFuture<Object> expiringListener = data.onPut("missingKey", value -> value != null, 50).toCompletableFuture();
+			CompletableFuture<Object> removeListener = data.onRemove("key[0]", value -> value != null).toCompletableFuture();
+			for (int i = 0; i < listenersCount; i++) {
+				data.put("key[" + i % 10 + "]", i);
+			}
+			//The listeners are completed by the writer without waiting threads
+			for (int i = 0; i < listenersCount; i++) {
+				assertTrue(listeners.get(i).getNow(-1) >= i);
+			}
+			assertEquals(listenersCount, completers.size());
+			assertTrue(completers.stream().allMatch(thread -> thread == writer));
+			assertTrue(assertThrows(ExecutionException.class, () -> expiringListener.get(10, TimeUnit.SECONDS)).getCause() instanceof TimeoutException);
+			assertFalse(removeListener.isDone());
+			data.removeAll("key[0]");
+			assertEquals(990, removeListener.getNow(-1));
+			assertFalse(((Context.Abst)data).mutexManager.hasMutexes());
+			factory.close(data);
+			logInfo(new Object() {}.getClass().getEnclosingMethod().getName() + " succesfully completed");
+		});
+	}
+
+	@Test
+	@Tag("Heavy")
+	public void compiledFunctionsBenchmark() {
+		testDoesNotThrow(() -> {
+			Map<String, Object> services = new LinkedHashMap<>();
+			services.put("service", new ServiceTwo());
+			Config graphConfig = Config.Factory.getInstance().build(
+				//Loading configuration file located in the folder src/test/resources/graphConfig
+				"graphConfig/CompiledFunctionsBenchmarkChainConfig.graph"
+			);
+			Factory factory = Factory.getInstance();
+			Functions wrappedFunctions = factory.build(graphConfig, services);
+			graphConfig.setCompile(true);
+			Functions compiledFunctions = factory.build(graphConfig, services);
+			for (int round = 0; round < 5; round++) {
+				for (Functions functions : new Functions[] {wrappedFunctions, compiledFunctions}) {
+					//The logging of the groups, which retrieves the stack trace of each call even if the level
+					//is disabled, would be measured instead of the invocations
+					ManagedLoggerRepository.disableLogging();
+					long initialTime = System.nanoTime();
+					try {
+						for (int i = 0; i < 20; i++) {
+							Context data = factory.createContext();
+							functions.executeOn(data);
+							factory.close(data);
+						}
+					} finally {
+						ManagedLoggerRepository.enableLogging();
+					}
+					logInfo(
+						"{} - round {}: {} ms",
+						functions.getClass().getSimpleName(), round, (System.nanoTime() - initialTime) / 1000000
+					);
+				}
+			}
+			factory.close(wrappedFunctions, compiledFunctions);
+		});
+	}
 }
@@ -1,13 +1,24 @@
 package org.burningwave.graph.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import org.burningwave.core.ManagedLogger;
 import org.burningwave.graph.Context;
+import org.burningwave.graph.ContextAccess;
+import org.burningwave.graph.ControllableContext.Directive;
 import org.burningwave.graph.bean.Person;
 
 public class ServiceTwo implements ManagedLogger {
@@ -15,6 +26,12 @@ public class ServiceTwo implements ManagedLogger {
 	public static final int PERSONS_COLLECTION_SIZE = 10000;
 	public static final int PERSONS_COLLECTIONS_NUMBER = 50;
 
+	private final AtomicLong counter = new AtomicLong();
+	private final AtomicBoolean firstItemExecuted = new AtomicBoolean();
+	private final AtomicInteger runningFunctions = new AtomicInteger();
+	private final AtomicInteger maxRunningFunctions = new AtomicInteger();
+	private final Set<Context> itemContexts = Collections.newSetFromMap(Collections.synchronizedMap(new IdentityHashMap<>()));
+
 	public void loadCollectionOfCollection(Context data) {
 		List<List<Person>> listOfPersonList = new ArrayList<>();
 		for (int i = 0; i < PERSONS_COLLECTIONS_NUMBER; i++) {
@@ -36,6 +53,22 @@ public class ServiceTwo implements ManagedLogger {
 		data.put("persons", loadCollection());
 	}
 
+	public void loadLinkedCollection(Context data) {
+		data.put("linkedPersons", new LinkedList<>(loadCollection()));
+	}
+
+	public void loadLazySources(Context data) {
+		data.put("personsStream", loadCollection().stream());
+		data.put("personsIterator", loadCollection().iterator());
+		Map<String, Person> personsMap = new LinkedHashMap<>();
+		loadCollection().forEach(person -> personsMap.put(UUID.randomUUID().toString(), person));
+		data.put("personsMap", personsMap);
+	}
+
+	public void loadArray(Context data) {
+		data.put("personsArray", loadCollection().toArray(new Person[PERSONS_COLLECTION_SIZE]));
+	}
+
 	public void setIdOnPerson(Context data) {
 		logInfo("current Index " + data.getCurrentIterationIndex());
 		Person person = data.getCurrentIteratedObject();
@@ -59,6 +92,41 @@ public class ServiceTwo implements ManagedLogger {
 		data.setCurrentIterationResult(person);
 	}
 
+	public void setPersonOnEvenIndex(Context data) {
+		if (data.getCurrentIterationIndex() % 2 == 0) {
+			data.setCurrentIterationResult(data.getCurrentIteratedObject());
+		}
+	}
+
+	public void setIndexAsResult(Context data) {
+		data.setCurrentIterationResult(data.getCurrentIterationIndexAsInt());
+	}
+
+	public void setIndexSquareAsResult(Context data) {
+		long index = data.getCurrentIterationIndexAsInt();
+		data.setCurrentIterationResult(index * index);
+	}
+
+	public void setIndexHalfAsResult(Context data) {
+		data.setCurrentIterationResult(data.getCurrentIterationIndexAsInt() / 2D);
+	}
+
+	public long zero() {
+		return 0L;
+	}
+
+	public long addIndex(long total, Context data) {
+		return total + data.getCurrentIterationIndexAsInt();
+	}
+
+	public long addOne(long total, Context data) {
+		return total + 1;
+	}
+
+	public long sum(long total, long otherTotal) {
+		return total + otherTotal;
+	}
+
 	public void printAllPersons(Context data) {
 		List<Person> persons = data.get("persons");
 		persons.forEach(person ->
@@ -78,6 +146,146 @@ public class ServiceTwo implements ManagedLogger {
 		data.put("total", index.get());
 	}
 
+	public void incrementCounter(Context data) {
+		counter.incrementAndGet();
+	}
+
+	public void stopIterationOnHalf(Context data) {
+		if (data.getCurrentIterationIndex() == PERSONS_COLLECTION_SIZE / 2) {
+			data.putDirective("itemsCounter", Directive.Functions.ForCollection.STOP_ITERATION);
+		}
+	}
+
+	public void stopProcessingOfStoppedGroup(Context data) {
+		data.putDirective("stoppedGroup", Directive.Functions.STOP_PROCESSING);
+	}
+
+	public void stopIterationOnFirstOrSleep(Context data) throws InterruptedException {
+		if (firstItemExecuted.compareAndSet(false, true)) {
+			data.putDirective("interruptedItemsLoop", Directive.Functions.ForCollection.STOP_ITERATION);
+		} else {
+			Thread.sleep(60000);
+		}
+	}
+
+	public void waitForNeverPutValue(Context data) throws InterruptedException {
+		data.waitForPut("neverPutValue", value -> value != null);
+	}
+
+	public void sleep(Context data) throws InterruptedException {
+		Thread.sleep(60000);
+	}
+
+	public void loadA(Context data) throws InterruptedException {
+		Thread.sleep(100);
+		data.put("a", 1);
+	}
+
+	public void computeB(Context data) {
+		data.put("b", (Integer)data.get("a") + 1);
+	}
+
+	public void computeC(Context data) throws InterruptedException {
+		Thread.sleep(50);
+		data.put("c", (Integer)data.get("a") + 2);
+	}
+
+	public void computeD(Context data) {
+		data.put("d", (Integer)data.get("b") + (Integer)data.get("c"));
+	}
+
+	@ContextAccess(writes = "x")
+	public void writeX(Context data) throws InterruptedException {
+		trackRunningFunctions(() -> data.put("x", 1));
+	}
+
+	@ContextAccess(writes = "y")
+	public void writeY(Context data) throws InterruptedException {
+		trackRunningFunctions(() -> data.put("y", 2));
+	}
+
+	@ContextAccess(writes = "w")
+	public void failWritingW(Context data) {
+		throw new IllegalStateException("w can't be written");
+	}
+
+	@ContextAccess(writes = "z", stopsProcessing = true)
+	public void stopProcessingOfStoppedGroupWritingZ(Context data) {
+		data.put("z", 1);
+		data.putDirective("stoppedGroup", Directive.Functions.STOP_PROCESSING);
+	}
+
+	public void computeSum(Context data) {
+		data.put("sum", (Integer)data.get("x") + (Integer)data.get("y"));
+	}
+
+	public void setIndexAsResultSlowlyOnFirstItems(Context data) throws InterruptedException {
+		int index = data.getCurrentIterationIndexAsInt();
+		trackRunningFunctions(index < 5 ? 100 : 0, () -> data.setCurrentIterationResult(index));
+	}
+
+	public void doubleResultSlowlyOnFirstItems(Context data) throws InterruptedException {
+		int index = data.getCurrentIterationIndexAsInt();
+		trackRunningFunctions(index < 5 ? 100 : 0, () -> data.setCurrentIterationResult((Integer)data.getCurrentIterationResult() * 2));
+	}
+
+	//Simulates on the first items a service whose latency grows with the number of concurrent calls
+	public void setIndexAsResultOnOverloadedService(Context data) throws InterruptedException {
+		int index = data.getCurrentIterationIndexAsInt();
+		trackRunningFunctions(index < 500 ? runningFunctions.get() + 1 : 0, () -> data.setCurrentIterationResult(index));
+	}
+
+	//Not interruptible: it writes in the context also after the deadline of the execution
+	public void writeLateResult(Context data) {
+		long endTime = System.currentTimeMillis() + 300;
+		for (long remainingTime; (remainingTime = endTime - System.currentTimeMillis()) > 0;) {
+			try {
+				Thread.sleep(remainingTime);
+			} catch (InterruptedException exc) {
+
+			}
+		}
+		data.put("lateResult", data.getCurrentIterationIndex());
+		counter.incrementAndGet();
+	}
+
+	public void trackItemContext(Context data) {
+		List<Person> persons = data.get("persons");
+		if (persons.get(data.getCurrentIterationIndexAsInt()) != data.getCurrentIteratedObject()) {
+			throw new IllegalStateException("The item context is not bound to the current item");
+		}
+		itemContexts.add(data);
+		counter.incrementAndGet();
+	}
+
+	public int getItemContextsCount() {
+		return itemContexts.size();
+	}
+
+	protected void trackRunningFunctions(Runnable function) throws InterruptedException {
+		trackRunningFunctions(200, function);
+	}
+
+	protected void trackRunningFunctions(long sleepTime, Runnable function) throws InterruptedException {
+		maxRunningFunctions.accumulateAndGet(runningFunctions.incrementAndGet(), Math::max);
+		try {
+			if (sleepTime > 0) {
+				Thread.sleep(sleepTime);
+			}
+			function.run();
+		} finally {
+			runningFunctions.decrementAndGet();
+		}
+	}
+
+	public int getMaxRunningFunctions() {
+		return maxRunningFunctions.get();
+	}
+
+	public long getCounter() {
+		return counter.get();
+	}
+
 	protected String getSaltString() {
         String SALTCHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890";
         StringBuilder salt = new StringBuilder();